@@ -0,0 +1,158 @@
+package biogenesis;
+
+import java.awt.Dimension;
+import java.awt.Frame;
+import java.awt.Rectangle;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Runs a seeded world without windows and prints how many frames per second it progresses and
+ * how much memory it allocates per frame, with an optimization turned off and on:
+ * <ul>
+ * <li>sort: sorting the organisms by their position every {@link #SORT_FRAMES} frames
+ * (see {@link Utils#SORT_ORGANISMS_FRAMES}).</li>
+ * <li>pool: reusing the segment arrays of organisms that are gone
+ * (see {@link Utils#POOL_SEGMENT_ARRAYS}).</li>
+ * </ul>
+ *
+ * Usage: make benchmark, or
+ * java -cp lib/gson-2.10.1.jar:classes biogenesis.Benchmark [sort|pool] [frames [seed [worldSize [organisms [threads]]]]]
+ * Without a name, all optimizations are compared.
+ */
+public class Benchmark {
+  private static final int SORT_FRAMES = 256;
+
+  public static void main(String[] args) {
+    System.setProperty("java.awt.headless", "true");
+    List<String> names = Arrays.asList("sort", "pool");
+    int first = 0;
+    if (args.length > 0 && names.contains(args[0])) {
+      names = Collections.singletonList(args[0]);
+      first = 1;
+    }
+    int frames = args.length > first ? Integer.parseInt(args[first]) : 2000;
+    long seed = args.length > first + 1 ? Long.parseLong(args[first + 1]) : 1;
+    int worldSize = args.length > first + 2 ? Integer.parseInt(args[first + 2]) : 2000;
+    int organisms = args.length > first + 3 ? Integer.parseInt(args[first + 3]) : 1500;
+    Utils.THREAD_COUNT = args.length > first + 4 ? Integer.parseInt(args[first + 4]) : 1;
+    Utils.WORLD_WIDTH = worldSize;
+    Utils.WORLD_HEIGHT = worldSize;
+    Utils.INITIAL_ORGANISMS = organisms;
+
+    System.out.printf("%d frames after %d frames of warm-up, seed %d, %dx%d world, %d organisms, %d threads%n",
+        frames, frames / 4, seed, worldSize, worldSize, organisms, Utils.THREAD_COUNT);
+    for (String name : names) {
+      // Twice each, so that the JIT has compiled everything in the second round
+      for (int round = 0; round < 2; round++) {
+        for (boolean on : new boolean[] {false, true}) {
+          Utils.SORT_ORGANISMS_FRAMES = on || !name.equals("sort") ? SORT_FRAMES : 0;
+          Utils.POOL_SEGMENT_ARRAYS = on || !name.equals("pool");
+          run(seed, frames, name + (on ? " on:" : " off:"));
+        }
+      }
+    }
+  }
+
+  private static void run(long seed, int frames, String label) {
+    Utils.random.setSeed(seed);
+    World world = new World(new HeadlessWorld());
+    world.genesis();
+    for (int i = 0; i < frames / 4; i++) {
+      world.time();
+    }
+    long allocated = getAllocatedBytes();
+    long start = System.nanoTime();
+    for (int i = 0; i < frames; i++) {
+      world.time();
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    allocated = getAllocatedBytes() - allocated;
+    System.out.printf("%-10s %8.1f frames/s, %8.1f KB allocated per frame, population %d%n",
+        label, frames / seconds, allocated / 1024.0 / frames, world.getPopulation());
+  }
+
+  /**
+   * Returns the number of bytes allocated so far by all live threads, or 0 if the JVM can't
+   * tell.
+   */
+  private static long getAllocatedBytes() {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+      return 0;
+    }
+    long total = 0;
+    for (long bytes : ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(threads.getAllThreadIds())) {
+      if (bytes > 0) {
+        total += bytes;
+      }
+    }
+    return total;
+  }
+
+  /**
+   * A visible world and main window that show nothing.
+   */
+  private static class HeadlessWorld implements VisibleWorldInterface, MainWindowInterface {
+    private Organism selectedOrganism;
+
+    @Override
+    public MainWindowInterface getMainWindow() {
+      return this;
+    }
+
+    @Override
+    public void repaint() {
+    }
+
+    @Override
+    public void repaint(Rectangle r) {
+    }
+
+    @Override
+    public void setPreferredSize(Dimension d) {
+    }
+
+    @Override
+    public Organism getSelectedOrganism() {
+      return selectedOrganism;
+    }
+
+    @Override
+    public void setSelectedOrganism(Organism o) {
+      selectedOrganism = o;
+    }
+
+    @Override
+    public void showDeadToolbar() {
+    }
+
+    @Override
+    public Frame getFrame() {
+      return null;
+    }
+
+    @Override
+    public World getWorld() {
+      return null;
+    }
+
+    @Override
+    public VisibleWorld getVisibleWorld() {
+      return null;
+    }
+
+    @Override
+    public InfoToolbar getInfoPanel() {
+      return null;
+    }
+
+    @Override
+    public BioFile getBioFile() {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,194 @@
+package biogenesis;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the number of alive organisms of every clade, updated on every birth and death, so that
+ * the number of distinct clades can be read without going through all organisms.
+ *
+ * The number of clades with at least 1, 10 and 100 organisms, which the world statistics and the
+ * status bar show, are kept up to date on every change. Every time {@link #sample} is called,
+ * the population of every clade is also recorded, and the last {@link #HISTORY_LENGTH} samples
+ * can be read for live charts.
+ *
+ * Clades without organisms are forgotten, together with their history.
+ */
+public class CladeRegistry {
+  /**
+   * The populations for which the number of clades with at least that many organisms is
+   * always known.
+   */
+  private static final int[] THRESHOLDS = {1, 10, 100};
+  /**
+   * The number of samples kept.
+   */
+  public static final int HISTORY_LENGTH = 256;
+
+  private final Map<Integer, Entry> clades = new HashMap<>();
+  private final int[] cladesOverThreshold = new int[THRESHOLDS.length];
+  private final long[] sampleTimes = new long[HISTORY_LENGTH];
+  private int sampleCount;
+
+  /**
+   * A clade with alive organisms.
+   */
+  public static class Entry {
+    private final int clade;
+    private int population;
+    /**
+     * The population at every sample since firstSample, in a ring of HISTORY_LENGTH elements.
+     */
+    private int[] history;
+    private final int firstSample;
+
+    private Entry(int clade, int firstSample) {
+      this.clade = clade;
+      this.firstSample = firstSample;
+    }
+
+    /**
+     * Returns the number of the clade in the {@link CladeTable}.
+     */
+    public int getClade() {
+      return clade;
+    }
+  }
+
+  /**
+   * Adds an alive organism to its clade, if it was not in one already.
+   */
+  public void register(Organism organism) {
+    if (organism._cladeEntry == null) {
+      organism._cladeEntry = add(organism.getGeneticCode().getClade());
+    }
+  }
+
+  /**
+   * Removes an organism that is no longer alive from the clade it was added to, even if the
+   * id of its clade changed since then.
+   */
+  public void unregister(Organism organism) {
+    if (organism._cladeEntry != null) {
+      remove(organism._cladeEntry);
+      organism._cladeEntry = null;
+    }
+  }
+
+  /**
+   * Adds one organism to the given clade.
+   *
+   * @param clade the number of the clade in the {@link CladeTable}
+   * @return the entry of the clade, to be passed to {@link #remove}
+   */
+  public synchronized Entry add(int clade) {
+    Entry entry = clades.get(clade);
+    if (entry == null) {
+      entry = new Entry(clade, sampleCount);
+      clades.put(clade, entry);
+    }
+    entry.population++;
+    for (int i = 0; i < THRESHOLDS.length; i++) {
+      if (entry.population == THRESHOLDS[i]) {
+        cladesOverThreshold[i]++;
+      }
+    }
+    return entry;
+  }
+
+  /**
+   * Removes one organism from the given clade.
+   */
+  public synchronized void remove(Entry entry) {
+    for (int i = 0; i < THRESHOLDS.length; i++) {
+      if (entry.population == THRESHOLDS[i]) {
+        cladesOverThreshold[i]--;
+      }
+    }
+    entry.population--;
+    if (entry.population == 0) {
+      clades.remove(entry.clade);
+    }
+  }
+
+  /**
+   * Returns the number of clades with at least minPopulation alive organisms. This takes
+   * constant time for 1, 10 and 100, and goes through all clades for other values.
+   */
+  public synchronized int getDistinctCladeCount(int minPopulation) {
+    for (int i = 0; i < THRESHOLDS.length; i++) {
+      if (THRESHOLDS[i] == minPopulation) {
+        return cladesOverThreshold[i];
+      }
+    }
+    int count = 0;
+    for (Entry entry : clades.values()) {
+      if (entry.population >= Math.max(minPopulation, 1)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns the number of alive organisms of a clade.
+   */
+  public synchronized int getPopulation(int clade) {
+    Entry entry = clades.get(clade);
+    return entry == null ? 0 : entry.population;
+  }
+
+  /**
+   * Records the population of every clade.
+   *
+   * @param time the time of the world, returned by {@link #getSampleTimes}
+   */
+  public synchronized void sample(long time) {
+    int index = sampleCount % HISTORY_LENGTH;
+    sampleTimes[index] = time;
+    for (Entry entry : clades.values()) {
+      if (entry.history == null) {
+        entry.history = new int[HISTORY_LENGTH];
+      }
+      entry.history[index] = entry.population;
+    }
+    sampleCount++;
+  }
+
+  /**
+   * Returns the times of the samples that are kept, oldest first.
+   */
+  public synchronized long[] getSampleTimes() {
+    int first = Math.max(0, sampleCount - HISTORY_LENGTH);
+    long[] times = new long[sampleCount - first];
+    for (int i = first; i < sampleCount; i++) {
+      times[i - first] = sampleTimes[i % HISTORY_LENGTH];
+    }
+    return times;
+  }
+
+  /**
+   * Returns the population of a clade at the samples that are kept, oldest first. The values
+   * match the last elements of {@link #getSampleTimes()}: if the clade is younger than the
+   * oldest sample, the result is shorter. If the clade has no alive organisms, it is empty.
+   */
+  public synchronized int[] getPopulationHistory(int clade) {
+    Entry entry = clades.get(clade);
+    if (entry == null || entry.history == null) {
+      return new int[0];
+    }
+    int first = Math.max(entry.firstSample, sampleCount - HISTORY_LENGTH);
+    int[] populations = new int[sampleCount - first];
+    for (int i = first; i < sampleCount; i++) {
+      populations[i - first] = entry.history[i % HISTORY_LENGTH];
+    }
+    return populations;
+  }
+
+  /**
+   * Returns the numbers of all clades with alive organisms, sorted.
+   */
+  public synchronized int[] getClades() {
+    return clades.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+  }
+}
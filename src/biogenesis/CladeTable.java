@@ -0,0 +1,219 @@
+package biogenesis;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The tree of all clades, so that genetic codes only need to keep the number of their clade.
+ *
+ * The id of a clade is a string that grows every time the clade splits: the id of a new clade
+ * is the id of its parent followed by a split marker (<code>+ - &gt; &lt; # =</code>, or none),
+ * some <code>|</code> and a new clade part in hexadecimal. Instead of copying that string into
+ * every genetic code, every split is a node of this table that only keeps its parent and its
+ * own suffix. The string is built when it is needed: to show it, and to save or send the genetic
+ * code. Strings read from files or from the network are parsed back into nodes, so that equal
+ * ids read get the same number. Splits never need that, since their parts are unique.
+ *
+ * The table is shared by all worlds of the program, like genetic codes can be, and it only
+ * grows. Every node takes a few bytes.
+ */
+public final class CladeTable {
+  /**
+   * The number of genetic codes without a clade.
+   */
+  public static final int NONE = 0;
+  private static final String MARKERS = "+-><#=";
+
+  private static int size = 1;
+  private static int[] parents = new int[1024];
+  private static int[] parts = new int[1024];
+  private static char[] markers = new char[1024];
+  private static short[] pipes = new short[1024];
+  /**
+   * The number of markers and '|' in the whole id.
+   */
+  private static int[] splitCounts = new int[1024];
+  /**
+   * The whole suffix of roots and of nodes that don't follow the usual format, null for
+   * the others.
+   */
+  private static String[] texts = new String[1024];
+  /**
+   * The nodes created from strings, by parent and suffix, so that they are only created once.
+   */
+  private static final Map<String, Integer> parsed = new HashMap<>();
+
+  private CladeTable() {
+  }
+
+  /**
+   * Creates a new clade that splits from the given one.
+   *
+   * @param parent the clade that splits
+   * @param marker the split marker, or 0 for none
+   * @param pipeCount the number of '|' after the marker
+   * @param part the new clade part
+   * @return the number of the new clade
+   */
+  public static synchronized int split(int parent, char marker, int pipeCount, int part) {
+    int clade = newNode(parent);
+    markers[clade] = marker;
+    pipes[clade] = (short) pipeCount;
+    parts[clade] = part;
+    splitCounts[clade] = splitCounts[parent] + (marker != 0 ? 1 : 0) + pipeCount;
+    return clade;
+  }
+
+  /**
+   * Returns the number of markers and '|' in the id of a clade. They count how many times
+   * it split.
+   */
+  public static synchronized int getSplitCount(int clade) {
+    return splitCounts[clade];
+  }
+
+  /**
+   * Returns the parent of a clade, or NONE for roots.
+   */
+  public static synchronized int getParent(int clade) {
+    return parents[clade];
+  }
+
+  /**
+   * Builds the id of a clade, or returns null for NONE.
+   */
+  public static synchronized String toString(int clade) {
+    if (clade == NONE) {
+      return null;
+    }
+    int depth = 0;
+    for (int c = clade; c != NONE; c = parents[c]) {
+      depth++;
+    }
+    int[] path = new int[depth];
+    for (int c = clade; c != NONE; c = parents[c]) {
+      path[--depth] = c;
+    }
+    StringBuilder id = new StringBuilder();
+    for (int c : path) {
+      appendSuffix(id, c);
+    }
+    return id.toString();
+  }
+
+  /**
+   * Returns the number of the clade with the given id, adding the nodes that are missing.
+   * Returns NONE for null.
+   */
+  public static synchronized int parse(String id) {
+    if (id == null) {
+      return NONE;
+    }
+    // The root is the number of the first organism, maybe after the name of its user
+    int i = id.lastIndexOf(':') + 1;
+    while (i < id.length() && Character.digit(id.charAt(i), 16) != -1) {
+      i++;
+    }
+    int clade = parsedNode(NONE, id.substring(0, i));
+    while (i < id.length()) {
+      // A split is a marker or any other character that is not a '|', the '|' and the part
+      int start = i;
+      if (id.charAt(i) != '|') {
+        i++;
+      }
+      while (i < id.length() && id.charAt(i) == '|') {
+        i++;
+      }
+      while (i < id.length() && Character.digit(id.charAt(i), 16) != -1) {
+        i++;
+      }
+      clade = parsedNode(clade, id.substring(start, i));
+    }
+    return clade;
+  }
+
+  /**
+   * Only here for testing. Returns the number of nodes.
+   */
+  public static synchronized int getSize() {
+    return size;
+  }
+
+  private static int parsedNode(int parent, String suffix) {
+    String key = parent + " " + suffix;
+    Integer clade = parsed.get(key);
+    if (clade == null) {
+      clade = newNode(parent);
+      setSuffix(clade, suffix);
+      parsed.put(key, clade);
+    }
+    return clade;
+  }
+
+  /**
+   * Stores the suffix of a parsed node as marker, '|' and part if it has that format and
+   * would be written back the same way, or as text otherwise.
+   */
+  private static void setSuffix(int clade, String suffix) {
+    int parent = parents[clade];
+    int i = 0;
+    char marker = 0;
+    if (i < suffix.length() && MARKERS.indexOf(suffix.charAt(i)) != -1) {
+      marker = suffix.charAt(i++);
+    }
+    int pipeCount = 0;
+    while (i < suffix.length() && suffix.charAt(i) == '|') {
+      pipeCount++;
+      i++;
+    }
+    String hex = suffix.substring(i);
+    boolean regular = parent != NONE && !hex.isEmpty() && hex.length() <= 8 && pipeCount <= Short.MAX_VALUE;
+    for (int j = 0; regular && j < hex.length(); j++) {
+      regular = Character.digit(hex.charAt(j), 16) != -1;
+    }
+    int part = regular ? Integer.parseUnsignedInt(hex, 16) : 0;
+    if (regular && Integer.toHexString(part).equals(hex)) {
+      markers[clade] = marker;
+      pipes[clade] = (short) pipeCount;
+      parts[clade] = part;
+    } else {
+      texts[clade] = suffix;
+    }
+    int splitCount = 0;
+    for (int j = 0; j < suffix.length(); j++) {
+      if (suffix.charAt(j) == '|' || MARKERS.indexOf(suffix.charAt(j)) != -1) {
+        splitCount++;
+      }
+    }
+    splitCounts[clade] = splitCounts[parent] + splitCount;
+  }
+
+  private static void appendSuffix(StringBuilder id, int clade) {
+    if (texts[clade] != null) {
+      id.append(texts[clade]);
+      return;
+    }
+    if (markers[clade] != 0) {
+      id.append(markers[clade]);
+    }
+    for (int i = 0; i < pipes[clade]; i++) {
+      id.append('|');
+    }
+    id.append(Integer.toHexString(parts[clade]));
+  }
+
+  private static int newNode(int parent) {
+    if (size == parents.length) {
+      int length = size * 2;
+      parents = Arrays.copyOf(parents, length);
+      parts = Arrays.copyOf(parts, length);
+      markers = Arrays.copyOf(markers, length);
+      pipes = Arrays.copyOf(pipes, length);
+      splitCounts = Arrays.copyOf(splitCounts, length);
+      texts = Arrays.copyOf(texts, length);
+    }
+    parents[size] = parent;
+    return size++;
+  }
+}
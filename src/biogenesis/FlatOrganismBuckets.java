@@ -0,0 +1,260 @@
+package biogenesis;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The same grid of buckets as {@link OrganismBuckets}, but all buckets are stored in one flat
+ * array, in the order of the bucket index (`y * (maxWidth + 1) + x`):
+ * <pre>
+ *   bucketStart:   [0, 2, 2, 5, ...]
+ *   organisms:     [o1, o7, o2, o3, o7, ...]
+ *                   \bucket0/ \bucket2 /
+ * </pre>
+ * The organisms of bucket `i` are stored from `bucketStart[i]` to `bucketStart[i + 1] - 1`.
+ *
+ * The array is rebuilt at the start of every frame with a counting sort over the bucket
+ * indexes, and it is read only during the frame, so any number of threads can read it without
+ * locking. Organisms that are added during the frame are stored in a small
+ * {@link OrganismBuckets} until the next rebuild, so they are visible right away. So are
+ * organisms that move into other buckets during the frame: they are found both in the buckets
+ * of their position at the start of the frame and in their new buckets, like in
+ * {@link OrganismBuckets}, and the matchers look at their current bounds.
+ */
+public class FlatOrganismBuckets implements OrganismIndex {
+  private final int bucketSize;
+  private final int maxWidth;
+  private final int maxHeight;
+  private final int rowLength;
+  /**
+   * Index of the first organism of every bucket in `organisms`. It has one extra element at
+   * the end, so the end of bucket `i` is always `bucketStart[i + 1]`.
+   */
+  private final int[] bucketStart;
+  /**
+   * Write position of every bucket while rebuilding.
+   */
+  private final int[] bucketCursor;
+  /**
+   * The organisms of all buckets, one bucket after the other.
+   */
+  private Organism[] organisms = new Organism[0];
+  private int organismsLength = 0;
+  /**
+   * Organisms added, or moved to other buckets, since the last rebuild.
+   */
+  private final OrganismBuckets addedBuckets;
+  private final List<Organism> added = new ArrayList<>();
+  /**
+   * The buckets of every organism of the world while rebuilding, by its index in the store.
+   */
+  private int[] rangeMinX = new int[0], rangeMinY = new int[0], rangeMaxX = new int[0], rangeMaxY = new int[0];
+
+  public FlatOrganismBuckets(final int mapWidth, final int mapHeight, final int bucketSize) {
+    this.bucketSize = bucketSize;
+
+    this.maxWidth = (mapWidth + bucketSize - 1) / bucketSize;
+    this.maxHeight = (mapHeight + bucketSize - 1) / bucketSize;
+    this.rowLength = maxWidth + 1;
+    this.bucketStart = new int[rowLength * (maxHeight + 1) + 1];
+    this.bucketCursor = new int[rowLength * (maxHeight + 1)];
+    this.addedBuckets = new OrganismBuckets(mapWidth, mapHeight, bucketSize);
+  }
+
+  /**
+   * Stores the organism until the next rebuild.
+   */
+  @Override
+  public void insert(Organism o) {
+    addedBuckets.insert(o);
+    synchronized (added) {
+      added.add(o);
+    }
+  }
+
+  /**
+   * Stores the organism in its new buckets until the next rebuild if it moved into other
+   * buckets. It is still found in its old buckets too, which only costs the matchers a look.
+   */
+  @Override
+  public void update(Organism o) {
+    final int minx = o._bucketMinX;
+    final int miny = o._bucketMinY;
+    final int maxx = o._bucketMaxX;
+    final int maxy = o._bucketMaxY;
+    // The first time, this tries to remove it from the added buckets of its old range,
+    // where it isn't, and adds it to the new ones
+    addedBuckets.update(o);
+    if (minx != o._bucketMinX || miny != o._bucketMinY || maxx != o._bucketMaxX || maxy != o._bucketMaxY) {
+      synchronized (added) {
+        added.add(o);
+      }
+    }
+  }
+
+  /**
+   * Marks the organism as removed, so it will not be returned until the next rebuild, when it
+   * will be gone for good.
+   */
+  @Override
+  public void remove(Organism o) {
+    // This also resets the bucket range of the organism to -1
+    addedBuckets.remove(o);
+  }
+
+  /**
+   * Rebuilds the flat array from the current position of all organisms. The buckets of every
+   * organism are computed from the bounds in the {@link KinematicStore} of the world, and the
+   * organisms themselves are only visited to put them in their buckets.
+   */
+  @Override
+  public void prepareFrame(OrganismStore worldOrganisms) {
+    synchronized (added) {
+      for (Organism o : added) {
+        addedBuckets.remove(o);
+      }
+      added.clear();
+    }
+
+    synchronized (worldOrganisms) {
+      final int count = worldOrganisms.size();
+      final KinematicStore k = worldOrganisms.getKinematics();
+      if (rangeMinX.length < count) {
+        final int capacity = count + count / 4;
+        rangeMinX = new int[capacity];
+        rangeMinY = new int[capacity];
+        rangeMaxX = new int[capacity];
+        rangeMaxY = new int[capacity];
+      }
+
+      // Count the organisms in every bucket
+      Arrays.fill(bucketCursor, 0);
+      int total = 0;
+      for (int i = 0; i < count; i++) {
+        final int minx = Math.max(0, (int) (k.minX[i] / (double) bucketSize));
+        final int miny = Math.max(0, (int) (k.minY[i] / (double) bucketSize));
+        final int maxx = Math.min(maxWidth, (int) (k.maxX[i] / (double) bucketSize));
+        final int maxy = Math.min(maxHeight, (int) (k.maxY[i] / (double) bucketSize));
+        rangeMinX[i] = minx;
+        rangeMinY[i] = miny;
+        rangeMaxX[i] = maxx;
+        rangeMaxY[i] = maxy;
+        for (int y = miny; y <= maxy; y++) {
+          for (int x = minx; x <= maxx; x++) {
+            bucketCursor[y * rowLength + x]++;
+          }
+        }
+        total += (maxx - minx + 1) * (maxy - miny + 1);
+      }
+
+      // Turn the counts into start indexes
+      bucketStart[0] = 0;
+      for (int i = 0; i < bucketCursor.length; i++) {
+        bucketStart[i + 1] = bucketStart[i] + bucketCursor[i];
+        bucketCursor[i] = bucketStart[i];
+      }
+
+      if (organisms.length < total) {
+        organisms = new Organism[total + total / 4];
+      } else if (total < organismsLength) {
+        // don't keep references to removed organisms
+        Arrays.fill(organisms, total, organismsLength, null);
+      }
+      organismsLength = total;
+
+      // Put every organism in its buckets
+      for (int i = 0; i < count; i++) {
+        final Organism o = worldOrganisms.get(i);
+        o._bucketMinX = rangeMinX[i];
+        o._bucketMinY = rangeMinY[i];
+        o._bucketMaxX = rangeMaxX[i];
+        o._bucketMaxY = rangeMaxY[i];
+        for (int y = rangeMinY[i]; y <= rangeMaxY[i]; y++) {
+          for (int x = rangeMinX[i]; x <= rangeMaxX[i]; x++) {
+            organisms[bucketCursor[y * rowLength + x]++] = o;
+          }
+        }
+      }
+    }
+  }
+
+  @Override
+  public Organism findFirst(Organism o, OrganismMatcher matcher) {
+    final int minx = Math.max(0, (int) (o.getMinX() / (double) bucketSize));
+    final int miny = Math.max(0, (int) (o.getMinY() / (double) bucketSize));
+    final int maxx = Math.min(maxWidth, (int) (o.getMaxX() / (double) bucketSize));
+    final int maxy = Math.min(maxHeight, (int) (o.getMaxY() / (double) bucketSize));
+
+    final Organism[] organisms = this.organisms;
+    for (int y = miny; y <= maxy; y++) {
+      final int rowStart = y * rowLength;
+      for (int bucket = rowStart + minx; bucket <= rowStart + maxx; bucket++) {
+        final int end = bucketStart[bucket + 1];
+        for (int i = bucketStart[bucket]; i < end; i++) {
+          final Organism match = organisms[i];
+          // skip organisms that were removed during this frame
+          if (match._bucketMinX >= 0 && matcher.match(match)) {
+            return match;
+          }
+        }
+      }
+    }
+
+    return addedBuckets.findFirst(o, matcher);
+  }
+
+  @Override
+  public Collection<Organism> getBucket(int x, int y) {
+    final int bucket = y * rowLength + x;
+    final Collection<Organism> flatBucket = new BucketView(bucketStart[bucket], bucketStart[bucket + 1]);
+    final Collection<Organism> addedBucket = addedBuckets.getBucket(x, y);
+    if (addedBucket.isEmpty()) {
+      return flatBucket;
+    }
+    final List<Organism> result = new ArrayList<>(flatBucket);
+    result.addAll(addedBucket);
+    return result;
+  }
+
+  /**
+   * Read only view of a part of the flat array.
+   */
+  private class BucketView extends AbstractList<Organism> {
+    private final Organism[] organisms = FlatOrganismBuckets.this.organisms;
+    private final int start;
+    private final int end;
+
+    BucketView(int start, int end) {
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    public Organism get(int index) {
+      return organisms[start + index];
+    }
+
+    @Override
+    public int size() {
+      return end - start;
+    }
+  }
+
+  @Override
+  public int getMaxWidth() {
+    return maxWidth;
+  }
+
+  @Override
+  public int getMaxHeight() {
+    return maxHeight;
+  }
+
+  @Override
+  public int getBucketSize() {
+    return bucketSize;
+  }
+}
@@ -0,0 +1,118 @@
+package biogenesis;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One tile of a deterministic frame, see {@link Utils#DETERMINISTIC}.
+ *
+ * In a deterministic frame the organisms are progressed tile by tile, and tiles that run at the
+ * same time never touch each other. So the results only depend on the thread count if tiles
+ * share some other state. To avoid that, every tile has its own random stream, which
+ * {@link Utils#random} uses while a thread is progressing the tile. Changes to the rest of the
+ * world are kept in the tile: gases are taken from the tile's share of the levels at the start of
+ * the frame, and world events are delayed. {@link World} applies them at the end of the frame, tile by tile
+ * in a fixed order.
+ */
+public class FrameTile {
+  private static final ThreadLocal<FrameTile> CURRENT = new ThreadLocal<>();
+  /**
+   * True while a deterministic frame is running, so that outside of them
+   * {@link #current()} doesn't need to look at the thread local.
+   */
+  private static volatile boolean active;
+
+  final SplitMixRandom random;
+  private final int index;
+  private final int count;
+  /**
+   * The number of identification numbers and clade parts given by this tile.
+   */
+  int ids, cladeParts;
+  /**
+   * Changes of the gases of the atmosphere made by this tile.
+   */
+  double O2, CO2, CO1, CH4, detritus;
+  final List<Runnable> events = new ArrayList<>();
+
+  /**
+   * Creates the tile number index of a frame with count tiles.
+   *
+   * @param frameSeed a random number drawn by the world for this frame
+   * @param index the position of this tile in the order the tiles are applied
+   * @param count the number of tiles of the frame
+   */
+  public FrameTile(long frameSeed, int index, int count) {
+    this.random = new SplitMixRandom(SplitMixRandom.mix(frameSeed + index * 0x9E3779B97F4A7C15L));
+    this.index = index;
+    this.count = count;
+  }
+
+  /**
+   * Starts or ends a deterministic frame.
+   */
+  public static void setActive(boolean active) {
+    FrameTile.active = active;
+  }
+
+  /**
+   * Returns the tile that the current thread is progressing, or null if there is none.
+   */
+  static FrameTile current() {
+    return active ? CURRENT.get() : null;
+  }
+
+  /**
+   * Delays an event until the end of the frame if the current thread is progressing a tile.
+   *
+   * @return true if the event was delayed, false if the caller must run it now
+   */
+  static boolean delay(Runnable event) {
+    FrameTile tile = current();
+    if (tile == null) {
+      return false;
+    }
+    tile.events.add(event);
+    return true;
+  }
+
+  /**
+   * Makes this the tile of the current thread, until {@link #exit()}.
+   */
+  public void enter() {
+    CURRENT.set(this);
+  }
+
+  public void exit() {
+    CURRENT.remove();
+  }
+
+  /**
+   * Returns how much of a gas this tile can still take from the atmosphere: an equal share of
+   * the level at the start of the frame, plus what the tile has given back and minus what it has
+   * taken. All tiles together can't take more than there was, whatever the order they run in.
+   *
+   * @param startLevel the level of the gas at the start of the frame
+   * @param change the change of the gas made by this tile so far
+   */
+  double available(double startLevel, double change) {
+    return Math.max(0, startLevel / count + change);
+  }
+
+  /**
+   * Returns a new identification number. Tiles take turns: tile i gives
+   * base + i, base + i + count, and so on, so the number doesn't depend on
+   * what other tiles do. The world moves base past all of them at the end
+   * of the frame.
+   */
+  int nextId(int base) {
+    return base + index + count * ids++;
+  }
+
+  /**
+   * Returns a new clade part, the same way as {@link #nextId}.
+   */
+  int nextCladePart(int base) {
+    return base + index + count * cladeParts++;
+  }
+}
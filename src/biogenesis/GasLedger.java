@@ -0,0 +1,132 @@
+package biogenesis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The gases of the atmosphere held by one thread during a parallel frame.
+ *
+ * Most organisms take or release some gas every frame, so with many threads a single lock per
+ * gas becomes a bottleneck. While the ledgers are open, every thread keeps its own stock of
+ * every gas: released gases are added to it without any lock, and gases are taken from it,
+ * drawing a slice of what is left in the atmosphere when it runs out. A thread never takes more
+ * than it holds plus what is left in the atmosphere, so no organism gets more gas than there is.
+ * When the frame ends, {@link World} returns all stocks to the atmosphere.
+ *
+ * All threads see the levels at the start of the frame when calculating how much gas an organism
+ * can absorb, like the tiles of a deterministic frame do.
+ */
+final class GasLedger {
+  static final int O2 = 0;
+  static final int CO2 = 1;
+  static final int CH4 = 2;
+  static final int CO1 = 3;
+  static final int DETRITUS = 4;
+  static final int GAS_COUNT = 5;
+  /**
+   * A thread draws this fraction of its share of a gas each time it runs out of it.
+   */
+  private static final int SLICES_PER_THREAD = 4;
+
+  private static final ThreadLocal<GasLedger> CURRENT = new ThreadLocal<GasLedger>() {
+    @Override
+    protected GasLedger initialValue() {
+      return new GasLedger();
+    }
+  };
+  /**
+   * The ledgers used in this frame. Guarded by itself.
+   */
+  private static final List<GasLedger> used = new ArrayList<>();
+  private static volatile boolean open;
+  private static int frame;
+  private static double[] startLevels = new double[GAS_COUNT];
+  private static double[] slices = new double[GAS_COUNT];
+
+  /**
+   * The amount of every gas held by this thread. It can be negative for O2, which is never
+   * limited.
+   */
+  final double[] stock = new double[GAS_COUNT];
+  private int lastFrame = -1;
+
+  /**
+   * Opens the ledgers for a frame progressed by threadCount threads.
+   *
+   * @param levels the levels of the gases at the start of the frame, by gas index
+   */
+  static void open(double[] levels, int threadCount) {
+    frame++;
+    startLevels = levels.clone();
+    for (int i = 0; i < GAS_COUNT; i++) {
+      slices[i] = levels[i] / (SLICES_PER_THREAD * threadCount);
+    }
+    open = true;
+  }
+
+  /**
+   * Closes the ledgers and returns the sum of their stocks, by gas index. The stocks are left
+   * empty.
+   */
+  static double[] close() {
+    open = false;
+    double[] total = new double[GAS_COUNT];
+    synchronized (used) {
+      for (GasLedger ledger : used) {
+        for (int i = 0; i < GAS_COUNT; i++) {
+          total[i] += ledger.stock[i];
+        }
+        Arrays.fill(ledger.stock, 0);
+      }
+      used.clear();
+    }
+    return total;
+  }
+
+  /**
+   * Returns the ledger of the current thread, or null if the ledgers are not open.
+   */
+  static GasLedger current() {
+    if (!open) {
+      return null;
+    }
+    GasLedger ledger = CURRENT.get();
+    if (ledger.lastFrame != frame) {
+      ledger.lastFrame = frame;
+      synchronized (used) {
+        used.add(ledger);
+      }
+    }
+    return ledger;
+  }
+
+  /**
+   * Takes up to q of a gas from the stock of this thread. If the stock is not enough, it first
+   * draws at least a slice of the gas from the atmosphere.
+   *
+   * @return the amount taken, which is q unless there isn't enough gas left
+   */
+  double take(int gas, double q, World world) {
+    if (stock[gas] < q) {
+      stock[gas] += world.withdraw(gas, Math.max(q - stock[gas], slices[gas]));
+    }
+    q = Math.min(q, stock[gas]);
+    stock[gas] -= q;
+    return q;
+  }
+
+  /**
+   * Returns the level of a gas at the start of the frame.
+   */
+  static double startLevel(int gas) {
+    return startLevels[gas];
+  }
+
+  /**
+   * Returns how much of a gas a thread draws from the atmosphere when it runs out of it.
+   */
+  static double slice(int gas) {
+    return slices[gas];
+  }
+}
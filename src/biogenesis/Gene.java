@@ -29,6 +29,10 @@ import com.google.gson.annotations.Expose;
  * depending on the symmetry of the organism. Genes are always segments starting
  * at (0,0). The position in the organism's body depends on their gene neighbors
  * and the organism's symmetry and mirroring.
+ * 
+ * Genes never change once they are created, so genetic codes can share them:
+ * a child gets the same gene objects as its parent, except for the ones that
+ * mutate. Methods that change a gene return a modified copy instead.
  */
 public class Gene implements Cloneable, Serializable {
 	/**
@@ -91,9 +95,14 @@ public class Gene implements Cloneable, Serializable {
 	private int _friendreaction = 0;
 
 	/**
-	 * Void constructor. Creates the gene but leave it uninitialized.
+	 * The number of reactions of a gene.
 	 */
-	public Gene() {
+	static final int REACTIONS = 37;
+
+	/**
+	 * Creates an uninitialized gene, for the methods below.
+	 */
+	private Gene() {
 	}
 
 	/**
@@ -156,7 +165,7 @@ public class Gene implements Cloneable, Serializable {
 		_friendreaction = friendreaction;
 	}
 
-	public void randomizeColor() {
+	private void randomizeColor() {
 		int max_prob = Utils.RED_PROB + Utils.GREEN_PROB + Utils.BLUE_PROB + Utils.CYAN_PROB + Utils.WHITE_PROB + Utils.GRAY_PROB + Utils.YELLOW_PROB + Utils.MAGENTA_PROB
 				+ Utils.PINK_PROB + Utils.CORAL_PROB + Utils.ORANGE_PROB + Utils.FOREST_PROB + Utils.IVY_PROB + Utils.SPRING_PROB + Utils.LEAF_PROB + Utils.SUMMER_PROB
 				+ Utils.LIME_PROB + Utils.BARK_PROB + Utils.VIOLET_PROB + Utils.TEAL_PROB + Utils.SPIN_PROB + Utils.EYE_PROB + Utils.MAROON_PROB + Utils.CRIMSON_PROB
@@ -417,161 +426,19 @@ public class Gene implements Cloneable, Serializable {
 		}
 		_color = Color.YELLOW;
 	}
-	
-	public void randomizeredReaction() {
-		_redreaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizegreenReaction() {
-		_greenreaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizeblueReaction() {
-		_bluereaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizeplagueReaction() {
-		_plaguereaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizescourgeReaction() {
-		_scourgereaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizewhiteReaction() {
-		_whitereaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizegrayReaction() {
-		_grayreaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizesilverReaction() {
-		_silverreaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizedefaultReaction() {
-		_defaultreaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizeconsumerReaction() {
-		_consumerreaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizeplantReaction() {
-		_plantreaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizemagentaReaction() {
-		_magentareaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizepinkReaction() {
-		_pinkreaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizecoralReaction() {
-		_coralreaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizeorangeReaction() {
-		_orangereaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizebarkReaction() {
-		_barkreaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizevioletReaction() {
-		_violetreaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizevirusReaction() {
-		_virusreaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizemaroonReaction() {
-		_maroonreaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizecrimsonReaction() {
-		_crimsonreaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizeoliveReaction() {
-		_olivereaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizemintReaction() {
-		_mintreaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizecreamReaction() {
-		_creamreaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizespikeReaction() {
-		_spikereaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizefallowReaction() {
-		_fallowreaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizelightblueReaction() {
-		_lightbluereaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizeochreReaction() {
-		_ochrereaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizeskyReaction() {
-		_skyreaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizelilacReaction() {
-		_lilacreaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizefireReaction() {
-		_firereaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizelightbrownReaction() {
-		_lightbrownreaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizegreenbrownReaction() {
-		_greenbrownreaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizebrownReaction() {
-		_brownreaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizeiceReaction() {
-		_icereaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizebrokenReaction() {
-		_brokenreaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizesickReaction() {
-		_sickreaction = Utils.random.nextInt(6);
-	}
-	
-	public void randomizefriendReaction() {
-		_friendreaction = Utils.random.nextInt(6);
-	}
 
-	public void randomizeLength() {
-		_length = 2.0 + Utils.random.nextDouble() * 16.0;
+	/**
+	 * Returns a random segment length, between 2 and 18.
+	 */
+	static double randomLength() {
+		return 2.0 + Utils.random.nextDouble() * 16.0;
 	}
 
-	public void randomizeTheta() {
-		_theta = Utils.random.nextDouble() * 2.0 * Math.PI;
+	/**
+	 * Returns a random rotation, in radians.
+	 */
+	static double randomTheta() {
+		return Utils.random.nextDouble() * 2.0 * Math.PI;
 	}
 
 	/**
@@ -580,54 +447,107 @@ public class Gene implements Cloneable, Serializable {
 	 * a random color. The probability of each color is taken from user
 	 * preferences.
 	 */
-	public void randomize() {
-		randomizeLength();
-		randomizeTheta();
+	private void randomize() {
+		_length = randomLength();
+		_theta = randomTheta();
 		randomizeColor();
-		randomizeredReaction();
-		randomizegreenReaction();
-		randomizeblueReaction();
-		randomizeplagueReaction();
-		randomizescourgeReaction();
-		randomizewhiteReaction();
-		randomizegrayReaction();
-		randomizesilverReaction();
-		randomizedefaultReaction();
-		randomizeconsumerReaction();
-		randomizeplantReaction();
-		randomizemagentaReaction();
-		randomizepinkReaction();
-		randomizecoralReaction();
-		randomizeorangeReaction();
-		randomizebarkReaction();
-		randomizevioletReaction();
-		randomizevirusReaction();
-		randomizemaroonReaction();
-		randomizecrimsonReaction();
-		randomizeoliveReaction();
-		randomizemintReaction();
-		randomizecreamReaction();
-		randomizespikeReaction();
-		randomizefallowReaction();
-		randomizelightblueReaction();
-		randomizeochreReaction();
-		randomizeskyReaction();
-		randomizelilacReaction();
-		randomizefireReaction();
-		randomizelightbrownReaction();
-		randomizegreenbrownReaction();
-		randomizebrownReaction();
-		randomizeiceReaction();
-		randomizebrokenReaction();
-		randomizesickReaction();
-		randomizefriendReaction();
+		for (int reaction=0; reaction<REACTIONS; reaction++)
+			setReaction(reaction, Utils.random.nextInt(6));
+	}
+
+	/**
+	 * Creates a random gene for the given position of a genetic code. Half of
+	 * the times its segment follows the previous one, otherwise it branches
+	 * from a random point up to this position.
+	 * 
+	 * @param position  The position of the gene in its genetic code.
+	 * @return  A new random gene.
+	 */
+	static Gene random(int position) {
+		Gene gene = new Gene();
+		gene.randomize();
+		if (Utils.random.nextBoolean()) {
+			gene._branch = -1;
+		} else {
+			gene._branch = Utils.random.nextInt(position+1);
+		}
+		return gene;
 	}
 
 	/**
-	 * Return an exact copy of this gene.
+	 * Returns a mutated copy of this gene, for a child genetic code. The length,
+	 * rotation and branch are decided by the caller; the reactions and the color
+	 * get new random values if they mutate.
+	 * 
+	 * @param length  The length of the new segment.
+	 * @param theta  The rotation of the new segment.
+	 * @param branch  The branching point of the new segment.
+	 * @param reactions  The reactions that mutate: bit i is set if the i-th
+	 * reaction, in the order of the constructor, mutates.
+	 * @param color  true if the color mutates.
+	 * @return  The mutated gene.
 	 */
-	@Override
-	public Object clone() {
+	Gene mutate(double length, double theta, int branch, long reactions, boolean color) {
+		Gene gene = copy();
+		gene._length = length;
+		gene._theta = theta;
+		gene._branch = branch;
+		for (int reaction=0; reactions != 0; reaction++, reactions >>>= 1) {
+			if ((reactions & 1) != 0)
+				gene.setReaction(reaction, Utils.random.nextInt(6));
+		}
+		if (color)
+			gene.randomizeColor();
+		return gene;
+	}
+
+	private void setReaction(int reaction, int value) {
+		switch (reaction) {
+		case 0: _redreaction = value; break;
+		case 1: _greenreaction = value; break;
+		case 2: _bluereaction = value; break;
+		case 3: _plaguereaction = value; break;
+		case 4: _scourgereaction = value; break;
+		case 5: _whitereaction = value; break;
+		case 6: _grayreaction = value; break;
+		case 7: _silverreaction = value; break;
+		case 8: _defaultreaction = value; break;
+		case 9: _consumerreaction = value; break;
+		case 10: _plantreaction = value; break;
+		case 11: _magentareaction = value; break;
+		case 12: _pinkreaction = value; break;
+		case 13: _coralreaction = value; break;
+		case 14: _orangereaction = value; break;
+		case 15: _barkreaction = value; break;
+		case 16: _violetreaction = value; break;
+		case 17: _virusreaction = value; break;
+		case 18: _maroonreaction = value; break;
+		case 19: _crimsonreaction = value; break;
+		case 20: _olivereaction = value; break;
+		case 21: _mintreaction = value; break;
+		case 22: _creamreaction = value; break;
+		case 23: _spikereaction = value; break;
+		case 24: _fallowreaction = value; break;
+		case 25: _lightbluereaction = value; break;
+		case 26: _ochrereaction = value; break;
+		case 27: _skyreaction = value; break;
+		case 28: _lilacreaction = value; break;
+		case 29: _firereaction = value; break;
+		case 30: _lightbrownreaction = value; break;
+		case 31: _greenbrownreaction = value; break;
+		case 32: _brownreaction = value; break;
+		case 33: _icereaction = value; break;
+		case 34: _brokenreaction = value; break;
+		case 35: _sickreaction = value; break;
+		case 36: _friendreaction = value; break;
+		default: throw new IllegalArgumentException("No reaction "+reaction); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Return an exact copy of this gene, to be modified before anybody else sees it.
+	 */
+	private Gene copy() {
 		Gene newGen = null;
 		try {
 			newGen = (Gene) super.clone();
@@ -816,184 +736,266 @@ public class Gene implements Cloneable, Serializable {
 	}
 
 	/**
-	 * Assign a color to the segment.
+	 * Returns a copy of this gene with another color.
 	 * 
 	 * @param color
-	 *            The color to assign
+	 *            The color of the copy
 	 */
-	public void setColor(Color color) {
-		_color = color;
+	public Gene withColor(Color color) {
+		Gene gene = copy();
+		gene._color = color;
+		return gene;
 	}
 	
 	/**
-	 * Assign a branching point to the segment.
+	 * Returns a copy of this gene with another branching point.
 	 * 
 	 * @param branch
-	 *            The branching point to assign
+	 *            The branching point of the copy
 	 */
-	public void setBranch(int branch) {
-		_branch = branch;
+	public Gene withBranch(int branch) {
+		Gene gene = copy();
+		gene._branch = branch;
+		return gene;
 	}
 	
 	/**
-	 * Assign a reaction to the segment.
+	 * Returns a copy of this gene with another reaction.
 	 * 
 	 * @param reaction
-	 *            The reaction to assign
+	 *            The reaction of the copy
 	 */
-	public void setredReaction(int redreaction) {
-		_redreaction = redreaction;
+	public Gene withredReaction(int redreaction) {
+		Gene gene = copy();
+		gene._redreaction = redreaction;
+		return gene;
 	}
 	
-	public void setgreenReaction(int greenreaction) {
-		_greenreaction = greenreaction;
+	public Gene withgreenReaction(int greenreaction) {
+		Gene gene = copy();
+		gene._greenreaction = greenreaction;
+		return gene;
 	}
 	
-	public void setblueReaction(int bluereaction) {
-		_bluereaction = bluereaction;
+	public Gene withblueReaction(int bluereaction) {
+		Gene gene = copy();
+		gene._bluereaction = bluereaction;
+		return gene;
 	}
 	
-	public void setplagueReaction(int plaguereaction) {
-		_plaguereaction = plaguereaction;
+	public Gene withplagueReaction(int plaguereaction) {
+		Gene gene = copy();
+		gene._plaguereaction = plaguereaction;
+		return gene;
 	}
 	
-	public void setscourgeReaction(int scourgereaction) {
-		_scourgereaction = scourgereaction;
+	public Gene withscourgeReaction(int scourgereaction) {
+		Gene gene = copy();
+		gene._scourgereaction = scourgereaction;
+		return gene;
 	}
 	
-	public void setwhiteReaction(int whitereaction) {
-		_whitereaction = whitereaction;
+	public Gene withwhiteReaction(int whitereaction) {
+		Gene gene = copy();
+		gene._whitereaction = whitereaction;
+		return gene;
 	}
 	
-	public void setgrayReaction(int grayreaction) {
-		_grayreaction = grayreaction;
+	public Gene withgrayReaction(int grayreaction) {
+		Gene gene = copy();
+		gene._grayreaction = grayreaction;
+		return gene;
 	}
 	
-	public void setsilverReaction(int silverreaction) {
-		_silverreaction = silverreaction;
+	public Gene withsilverReaction(int silverreaction) {
+		Gene gene = copy();
+		gene._silverreaction = silverreaction;
+		return gene;
 	}
 	
-	public void setdefaultReaction(int defaultreaction) {
-		_defaultreaction = defaultreaction;
+	public Gene withdefaultReaction(int defaultreaction) {
+		Gene gene = copy();
+		gene._defaultreaction = defaultreaction;
+		return gene;
 	}
 	
-	public void setconsumerReaction(int consumerreaction) {
-		_consumerreaction = consumerreaction;
+	public Gene withconsumerReaction(int consumerreaction) {
+		Gene gene = copy();
+		gene._consumerreaction = consumerreaction;
+		return gene;
 	}
 	
-	public void setplantReaction(int plantreaction) {
-		_plantreaction = plantreaction;
+	public Gene withplantReaction(int plantreaction) {
+		Gene gene = copy();
+		gene._plantreaction = plantreaction;
+		return gene;
 	}
 	
-	public void setmagentaReaction(int magentareaction) {
-		_magentareaction = magentareaction;
+	public Gene withmagentaReaction(int magentareaction) {
+		Gene gene = copy();
+		gene._magentareaction = magentareaction;
+		return gene;
 	}
 	
-	public void setpinkReaction(int pinkreaction) {
-		_pinkreaction = pinkreaction;
+	public Gene withpinkReaction(int pinkreaction) {
+		Gene gene = copy();
+		gene._pinkreaction = pinkreaction;
+		return gene;
 	}
 	
-	public void setcoralReaction(int coralreaction) {
-		_coralreaction = coralreaction;
+	public Gene withcoralReaction(int coralreaction) {
+		Gene gene = copy();
+		gene._coralreaction = coralreaction;
+		return gene;
 	}
 	
-	public void setorangeReaction(int orangereaction) {
-		_orangereaction = orangereaction;
+	public Gene withorangeReaction(int orangereaction) {
+		Gene gene = copy();
+		gene._orangereaction = orangereaction;
+		return gene;
 	}
 	
-	public void setbarkReaction(int barkreaction) {
-		_barkreaction = barkreaction;
+	public Gene withbarkReaction(int barkreaction) {
+		Gene gene = copy();
+		gene._barkreaction = barkreaction;
+		return gene;
 	}
 	
-	public void setvioletReaction(int violetreaction) {
-		_violetreaction = violetreaction;
+	public Gene withvioletReaction(int violetreaction) {
+		Gene gene = copy();
+		gene._violetreaction = violetreaction;
+		return gene;
 	}
 	
-	public void setvirusReaction(int virusreaction) {
-		_virusreaction = virusreaction;
+	public Gene withvirusReaction(int virusreaction) {
+		Gene gene = copy();
+		gene._virusreaction = virusreaction;
+		return gene;
 	}
 	
-	public void setmaroonReaction(int maroonreaction) {
-		_maroonreaction = maroonreaction;
+	public Gene withmaroonReaction(int maroonreaction) {
+		Gene gene = copy();
+		gene._maroonreaction = maroonreaction;
+		return gene;
 	}
 	
-	public void setcrimsonReaction(int crimsonreaction) {
-		_crimsonreaction = crimsonreaction;
+	public Gene withcrimsonReaction(int crimsonreaction) {
+		Gene gene = copy();
+		gene._crimsonreaction = crimsonreaction;
+		return gene;
 	}
 	
-	public void setoliveReaction(int olivereaction) {
-		_olivereaction = olivereaction;
+	public Gene witholiveReaction(int olivereaction) {
+		Gene gene = copy();
+		gene._olivereaction = olivereaction;
+		return gene;
 	}
 	
-	public void setmintReaction(int mintreaction) {
-		_mintreaction = mintreaction;
+	public Gene withmintReaction(int mintreaction) {
+		Gene gene = copy();
+		gene._mintreaction = mintreaction;
+		return gene;
 	}
 	
-	public void setcreamReaction(int creamreaction) {
-		_creamreaction = creamreaction;
+	public Gene withcreamReaction(int creamreaction) {
+		Gene gene = copy();
+		gene._creamreaction = creamreaction;
+		return gene;
 	}
 	
-	public void setspikeReaction(int spikereaction) {
-		_spikereaction = spikereaction;
+	public Gene withspikeReaction(int spikereaction) {
+		Gene gene = copy();
+		gene._spikereaction = spikereaction;
+		return gene;
 	}
 	
-	public void setfallowReaction(int fallowreaction) {
-		_fallowreaction = fallowreaction;
+	public Gene withfallowReaction(int fallowreaction) {
+		Gene gene = copy();
+		gene._fallowreaction = fallowreaction;
+		return gene;
 	}
 	
-	public void setlightblueReaction(int lightbluereaction) {
-		_lightbluereaction = lightbluereaction;
+	public Gene withlightblueReaction(int lightbluereaction) {
+		Gene gene = copy();
+		gene._lightbluereaction = lightbluereaction;
+		return gene;
 	}
 	
-	public void setochreReaction(int ochrereaction) {
-		_ochrereaction = ochrereaction;
+	public Gene withochreReaction(int ochrereaction) {
+		Gene gene = copy();
+		gene._ochrereaction = ochrereaction;
+		return gene;
 	}
 	
-	public void setskyReaction(int skyreaction) {
-		_skyreaction = skyreaction;
+	public Gene withskyReaction(int skyreaction) {
+		Gene gene = copy();
+		gene._skyreaction = skyreaction;
+		return gene;
 	}
 	
-	public void setlilacReaction(int lilacreaction) {
-		_lilacreaction = lilacreaction;
+	public Gene withlilacReaction(int lilacreaction) {
+		Gene gene = copy();
+		gene._lilacreaction = lilacreaction;
+		return gene;
 	}
 	
-	public void setfireReaction(int firereaction) {
-		_firereaction = firereaction;
+	public Gene withfireReaction(int firereaction) {
+		Gene gene = copy();
+		gene._firereaction = firereaction;
+		return gene;
 	}
 	
-	public void setlightbrownReaction(int lightbrownreaction) {
-		_lightbrownreaction = lightbrownreaction;
+	public Gene withlightbrownReaction(int lightbrownreaction) {
+		Gene gene = copy();
+		gene._lightbrownreaction = lightbrownreaction;
+		return gene;
 	}
 	
-	public void setgreenbrownReaction(int greenbrownreaction) {
-		_greenbrownreaction = greenbrownreaction;
+	public Gene withgreenbrownReaction(int greenbrownreaction) {
+		Gene gene = copy();
+		gene._greenbrownreaction = greenbrownreaction;
+		return gene;
 	}
 	
-	public void setbrownReaction(int brownreaction) {
-		_brownreaction = brownreaction;
+	public Gene withbrownReaction(int brownreaction) {
+		Gene gene = copy();
+		gene._brownreaction = brownreaction;
+		return gene;
 	}
 	
-	public void seticeReaction(int icereaction) {
-		_icereaction = icereaction;
+	public Gene withiceReaction(int icereaction) {
+		Gene gene = copy();
+		gene._icereaction = icereaction;
+		return gene;
 	}
 	
-	public void setbrokenReaction(int brokenreaction) {
-		_brokenreaction = brokenreaction;
+	public Gene withbrokenReaction(int brokenreaction) {
+		Gene gene = copy();
+		gene._brokenreaction = brokenreaction;
+		return gene;
 	}
 	
-	public void setsickReaction(int sickreaction) {
-		_sickreaction = sickreaction;
+	public Gene withsickReaction(int sickreaction) {
+		Gene gene = copy();
+		gene._sickreaction = sickreaction;
+		return gene;
 	}
 	
-	public void setfriendReaction(int friendreaction) {
-		_friendreaction = friendreaction;
+	public Gene withfriendReaction(int friendreaction) {
+		Gene gene = copy();
+		gene._friendreaction = friendreaction;
+		return gene;
 	}
 
-	public void setLength(double length) {
-		_length = length;
+	public Gene withLength(double length) {
+		Gene gene = copy();
+		gene._length = length;
+		return gene;
 	}
 
-	public void setTheta(double theta) {
-		_theta = theta;
+	public Gene withTheta(double theta) {
+		Gene gene = copy();
+		gene._theta = theta;
+		return gene;
 	}
 }
@@ -20,6 +20,9 @@ package biogenesis;
 
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.List;
 
@@ -51,6 +54,16 @@ public class GeneticCode implements Cloneable, Serializable {
 	 * The version of this class
 	 */
 	private static final long serialVersionUID = Utils.FILE_VERSION;
+	/**
+	 * The number of mutation checks of every gene of a child: length, rotation,
+	 * branch, every reaction and color, in this order.
+	 */
+	private static final int GENE_MUTATIONS = 3 + Gene.REACTIONS + 1;
+	private static final long MUTATE_LENGTH = 1L;
+	private static final long MUTATE_THETA = 1L << 1;
+	private static final long MUTATE_BRANCH = 1L << 2;
+	private static final long MUTATE_REACTIONS = ((1L << Gene.REACTIONS) - 1) << 3;
+	private static final long MUTATE_COLOR = 1L << (GENE_MUTATIONS - 1);
 	/**
 	 * Array with the genes. Every gene is represented by symmetry
 	 * segments when drawing the organism.
@@ -218,10 +231,19 @@ public class GeneticCode implements Cloneable, Serializable {
 	 */
 	protected int _generation;
 	/**
-	 * Identification number of this organisms clade.
+	 * Identification number of this organisms clade, in the {@link CladeTable}.
 	 */
-	@Expose
-	protected String _cladeID;
+	protected transient int _clade;
+	/**
+	 * Identification of this organisms clade, as written to files. Only set
+	 * while this genetic code is being written or read.
+	 */
+	private String _cladeID;
+	/**
+	 * Segment reactions shared by all the organisms with this genetic code.
+	 * Computed by the first organism that needs them.
+	 */
+	private transient Phenotype _phenotype;
 	// Getters
 	/**
 	 * Returns the symmetry applied to organisms with this genetic code
@@ -509,7 +531,23 @@ public class GeneticCode implements Cloneable, Serializable {
 	 * @return  The identification number of this organisms clade.
 	 */
 	public String getcladeID() {
-		return _cladeID;
+		return CladeTable.toString(_clade);
+	}
+	/**
+	 * Returns the number of this organisms clade in the {@link CladeTable}.
+	 * 
+	 * @return  The number of this organisms clade.
+	 */
+	public int getClade() {
+		return _clade;
+	}
+	/**
+	 * Sets the clade of this genetic code from its identification.
+	 * 
+	 * @param cladeID  The identification of the clade.
+	 */
+	public void setcladeID(String cladeID) {
+		_clade = CladeTable.parse(cladeID);
 	}
 	/**
 	 * Return a reference to a gene.
@@ -528,6 +566,23 @@ public class GeneticCode implements Cloneable, Serializable {
 	public int getNGenes() {
 		return _genes.length;
 	}
+	/**
+	 * Returns the segment reactions of the organisms with this genetic code.
+	 * They are computed the first time and shared after that, so the arrays
+	 * must not be modified.
+	 * 
+	 * @return  The phenotype of this code
+	 */
+	Phenotype getPhenotype() {
+		// Several threads may compute it at the same time, but all the
+		// results are equal and the final fields make them safe to share
+		Phenotype phenotype = _phenotype;
+		if (phenotype == null) {
+			phenotype = new Phenotype(this);
+			_phenotype = phenotype;
+		}
+		return phenotype;
+	}
 	/**
 	 * Gives mirror a random value (0 or 1)
 	 */
@@ -733,15 +788,8 @@ public class GeneticCode implements Cloneable, Serializable {
 		    nSegments += (_symmetry - (nSegments % _symmetry));
 		int nGenes = nSegments / _symmetry;
 		_genes = new Gene[nGenes];
-		for (int i=0; i<nGenes; i++) {
-			_genes[i] = new Gene();
-			_genes[i].randomize();
-			if (Utils.random.nextBoolean()) {
-				_genes[i].setBranch(-1);
-			} else {
-				_genes[i].setBranch(Utils.random.nextInt(i+1));
-			}
-		}
+		for (int i=0; i<nGenes; i++)
+			_genes[i] = Gene.random(i);
 	}
 	/**
 	 * Gives plague version a random value (true or false)
@@ -1003,6 +1051,34 @@ public class GeneticCode implements Cloneable, Serializable {
 		_modifiesleaf = modifiesleaf;
 		_selfish = selfish;
 	}
+	/**
+	 * Writes the identification of the clade in place of its number, which
+	 * is only valid in this program.
+	 *
+	 * @param out  The stream where the object is written
+	 * @throws IOException
+	 */
+	private synchronized void writeObject(ObjectOutputStream out) throws IOException {
+		_cladeID = getcladeID();
+		try {
+			out.defaultWriteObject();
+		} finally {
+			_cladeID = null;
+		}
+	}
+	/**
+	 * Called by the JRE when an instance of this class is read from a file.
+	 * Finds the number of the clade.
+	 *
+	 * @param in  The stream from where the object comes from
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		_clade = CladeTable.parse(_cladeID);
+		_cladeID = null;
+	}
 	/**
 	 * Creates a new genetic code based on the father genetic code but
 	 * applying random mutations to it.
@@ -1015,48 +1091,11 @@ public class GeneticCode implements Cloneable, Serializable {
 		int removedGene = -1;
 		int clonedGene = 0;
 		int nGenes;
-		boolean randomLength;
-		boolean randomTheta;
-		boolean randomBranch;
+		long geneMutations;
+		double length;
+		double theta;
+		int branch;
 		boolean repairBranch = false;
-		boolean randomredReaction;
-		boolean randomgreenReaction;
-		boolean randomblueReaction;
-		boolean randomplagueReaction;
-		boolean randomscourgeReaction;
-		boolean randomwhiteReaction;
-		boolean randomgrayReaction;
-		boolean randomsilverReaction;
-		boolean randomdefaultReaction;
-		boolean randomconsumerReaction;
-		boolean randomplantReaction;
-		boolean randommagentaReaction;
-		boolean randompinkReaction;
-		boolean randomcoralReaction;
-		boolean randomorangeReaction;
-		boolean randombarkReaction;
-		boolean randomvioletReaction;
-		boolean randomvirusReaction;
-		boolean randommaroonReaction;
-		boolean randomcrimsonReaction;
-		boolean randomoliveReaction;
-		boolean randommintReaction;
-		boolean randomcreamReaction;
-		boolean randomspikeReaction;
-		boolean randomfallowReaction;
-		boolean randomlightblueReaction;
-		boolean randomochreReaction;
-		boolean randomskyReaction;
-		boolean randomlilacReaction;
-		boolean randomfireReaction;
-		boolean randomlightbrownReaction;
-		boolean randomgreenbrownReaction;
-		boolean randombrownReaction;
-		boolean randomiceReaction;
-		boolean randombrokenReaction;
-		boolean randomsickReaction;
-		boolean randomfriendReaction;
-		boolean randomColor;
 		
 		_mutationrate = parentCode.getMutationrate();
 		if (Utils.randomMutation()) {
@@ -1288,7 +1327,10 @@ public class GeneticCode implements Cloneable, Serializable {
 				}
 			}
 		}
-		if (Utils.random.nextInt(10000) < _mutationrate) {
+		// The checks of the mutation rate below are a row of trials that take no random
+		// numbers until one of them succeeds
+		MutationTrials mutations = new MutationTrials(Utils.random, _mutationrate);
+		if (mutations.next()) {
 			// change symmetry
 			randomSymmetry();
 			// keep mirror
@@ -1301,7 +1343,7 @@ public class GeneticCode implements Cloneable, Serializable {
 		} else {
 			// keep symmetry
 			_symmetry = parentCode.getSymmetry();
-			if (Utils.random.nextInt(10000) < _mutationrate) {
+			if (mutations.next()) {
 				// change mirror
 				randomMirror();
 				// keep number of segments
@@ -1312,7 +1354,7 @@ public class GeneticCode implements Cloneable, Serializable {
 			} else {
 				// keep mirror
 				_mirror = parentCode.getMirror();
-				if (Utils.random.nextInt(10000) < _mutationrate) {
+				if (mutations.next()) {
 					// change number of segments
 					if (Utils.random.nextBoolean()) {
 						// increase segments
@@ -1340,464 +1382,225 @@ public class GeneticCode implements Cloneable, Serializable {
 				}
 			}
 		}
-		// Create genes
-		_genes = new Gene[nGenes];
-		for (i=0,j=0; i<nGenes; i++,j++) {
-			if (removedGene == j) {
-				i--;
-				continue;
-			}
-			if (addedGene == i) {
-				if (Utils.random.nextInt(100) < _clonerate) {
-					// Clone the gene after or before itself, and always randomize rotation
-					if (i == 0) {
-						clonedGene = -1;
-					} else {
-						if (i<nGenes-1) {
-							if (Utils.random.nextBoolean()) {
-								clonedGene = -1;
+		// Create genes. Genes never change, so the ones that don't mutate are shared
+		// with the parent, and so is the whole array if none of them does
+		if (addedGene == -1 && removedGene == -1 && mutations.skip((long) GENE_MUTATIONS * nGenes)) {
+			_genes = parentCode._genes;
+		} else {
+			_genes = new Gene[nGenes];
+			for (i=0,j=0; i<nGenes; i++,j++) {
+				if (removedGene == j) {
+					i--;
+					continue;
+				}
+				if (addedGene == i) {
+					if (Utils.random.nextInt(100) < _clonerate) {
+						// Clone the gene after or before itself, and always randomize rotation
+						if (i == 0) {
+							clonedGene = -1;
+						} else {
+							if (i<nGenes-1) {
+								if (Utils.random.nextBoolean()) {
+									clonedGene = -1;
+								} else {
+									clonedGene = 1;
+									j--;
+								}
 							} else {
 								clonedGene = 1;
 								j--;
 							}
-						} else {
-							clonedGene = 1;
-							j--;
 						}
-					}
-				} else {
-					// Create a new gene
-					_genes[i] = new Gene();
-					_genes[i].randomize();
-					if (Utils.random.nextBoolean()) {
-						_genes[i].setBranch(-1);
 					} else {
-						_genes[i].setBranch(Utils.random.nextInt(i+1));
+						// Create a new gene
+						_genes[i] = Gene.random(i);
+						j--;
+						continue;
 					}
-					j--;
-					continue;
 				}
-			}
-			randomLength = randomTheta = randomBranch = randomredReaction = randomgreenReaction = randomblueReaction = randomplagueReaction = randomscourgeReaction
-			= randomwhiteReaction = randomgrayReaction = randomsilverReaction = randomdefaultReaction = randomconsumerReaction = randomplantReaction = randommagentaReaction
-			= randompinkReaction = randomcoralReaction = randomorangeReaction = randombarkReaction = randomvioletReaction = randomvirusReaction = randommaroonReaction
-			= randomcrimsonReaction = randomoliveReaction = randommintReaction = randomcreamReaction = randomspikeReaction = randomfallowReaction = randomlightblueReaction
-			= randomochreReaction = randomskyReaction = randomlilacReaction = randomfireReaction = randomlightbrownReaction = randomgreenbrownReaction = randombrownReaction
-			= randomiceReaction = randombrokenReaction = randomsickReaction = randomfriendReaction = randomColor = false;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomLength = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomTheta = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomBranch = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomredReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomgreenReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomblueReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomplagueReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomscourgeReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomwhiteReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomgrayReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomsilverReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomdefaultReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomconsumerReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomplantReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randommagentaReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randompinkReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomcoralReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomorangeReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randombarkReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomvioletReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomvirusReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randommaroonReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomcrimsonReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomoliveReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randommintReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomcreamReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomspikeReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomfallowReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomlightblueReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomochreReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomskyReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomlilacReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomfireReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomlightbrownReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomgreenbrownReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randombrownReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomiceReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randombrokenReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomsickReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomfriendReaction = true;
-			if (Utils.random.nextInt(10000) < _mutationrate)
-				randomColor = true;
-			if (randomLength || randomTheta || randomBranch || repairBranch || randomredReaction || randomgreenReaction || randomblueReaction || randomplagueReaction
-				|| randomscourgeReaction || randomwhiteReaction || randomgrayReaction || randomsilverReaction || randomdefaultReaction || randomconsumerReaction
-				|| randomplantReaction || randommagentaReaction || randompinkReaction || randomcoralReaction || randomorangeReaction || randombarkReaction
-				|| randomvioletReaction || randomvirusReaction || randommaroonReaction || randomcrimsonReaction || randomoliveReaction || randommintReaction
-				|| randomcreamReaction || randomspikeReaction || randomfallowReaction || randomlightblueReaction || randomochreReaction || randomskyReaction
-				|| randomlilacReaction || randomfireReaction || randomlightbrownReaction || randomgreenbrownReaction || randombrownReaction || randomiceReaction
-				|| randombrokenReaction || randomsickReaction || randomfriendReaction || randomColor || clonedGene != 0) {
-				_genes[i] = new Gene();
-				if (clonedGene != 0) {
-					if ((Utils.random.nextBoolean()) || (randomLength)) {
-						_genes[i].randomizeLength();
-					} else {
-						_genes[i].setLength(parentCode.getGene(j).getLength());
-					}
-					_genes[i].randomizeTheta();
-					if ((Utils.random.nextInt(4) < 1) || (randomBranch)) {
-						if (Utils.random.nextBoolean()) {
-							_genes[i].setBranch(-1);
+				Gene parentGene = parentCode.getGene(j);
+				// Bits: length, rotation, branch, the reactions and the color
+				geneMutations = mutations.next(GENE_MUTATIONS);
+				if (geneMutations != 0 || clonedGene != 0 || (repairBranch && parentGene.getBranch() > i)) {
+					if (clonedGene != 0) {
+						if ((Utils.random.nextBoolean()) || ((geneMutations & MUTATE_LENGTH) != 0)) {
+							length = Gene.randomLength();
 						} else {
-							_genes[i].setBranch(Utils.random.nextInt(i+1));
+							length = parentGene.getLength();
 						}
-					} else {
-						_genes[i].setBranch(parentCode.getGene(j).getBranch());
-						if (clonedGene == 1) {
-							if (_genes[i].getBranch() == -1) {
-								if (Utils.random.nextBoolean()) {
-									_genes[i].setBranch(i-1);
-								} else {
-									if (Utils.random.nextBoolean()) {
-										_genes[i].setBranch(i);
-									}
-								}
+						theta = Gene.randomTheta();
+						if ((Utils.random.nextInt(4) < 1) || ((geneMutations & MUTATE_BRANCH) != 0)) {
+							if (Utils.random.nextBoolean()) {
+								branch = -1;
 							} else {
-								if (Utils.random.nextBoolean()) {
+								branch = Utils.random.nextInt(i+1);
+							}
+						} else {
+							branch = parentGene.getBranch();
+							if (clonedGene == 1) {
+								if (branch == -1) {
 									if (Utils.random.nextBoolean()) {
-										_genes[i].setBranch(-1);
+										branch = i-1;
 									} else {
-										_genes[i].setBranch(i);
+										if (Utils.random.nextBoolean()) {
+											branch = i;
+										}
+									}
+								} else {
+									if (Utils.random.nextBoolean()) {
+										if (Utils.random.nextBoolean()) {
+											branch = -1;
+										} else {
+											branch = i;
+										}
 									}
 								}
 							}
 						}
-					}
-				} else {
-					if (randomLength)
-						_genes[i].randomizeLength();
-					else
-						_genes[i].setLength(parentCode.getGene(j).getLength());
-					if (randomTheta)
-						_genes[i].randomizeTheta();
-					else
-						_genes[i].setTheta(parentCode.getGene(j).getTheta());
-					if (randomBranch) {
-						if (Utils.random.nextBoolean()) {
-							_genes[i].setBranch(-1);
+					} else {
+						if ((geneMutations & MUTATE_LENGTH) != 0)
+							length = Gene.randomLength();
+						else
+							length = parentGene.getLength();
+						if ((geneMutations & MUTATE_THETA) != 0)
+							theta = Gene.randomTheta();
+						else
+							theta = parentGene.getTheta();
+						if ((geneMutations & MUTATE_BRANCH) != 0) {
+							if (Utils.random.nextBoolean()) {
+								branch = -1;
+							} else {
+								branch = Utils.random.nextInt(i+1);
+							}
 						} else {
-							_genes[i].setBranch(Utils.random.nextInt(i+1));
+							branch = parentGene.getBranch();
+							if ((repairBranch) && (branch > i)) {
+								branch = i;
+							}
 						}
-					} else {
-						_genes[i].setBranch(parentCode.getGene(j).getBranch());
-						if ((repairBranch) && (_genes[i].getBranch() > i)) {
-							_genes[i].setBranch(i);
+					}
+					_genes[i] = parentGene.mutate(length, theta, branch, (geneMutations & MUTATE_REACTIONS) >>> 3, (geneMutations & MUTATE_COLOR) != 0);
+					if ((geneMutations & MUTATE_COLOR) != 0) {
+						if ((!_genes[i].getColor().equals(parentGene.getColor())) && (clonedGene == 0)) {
+							if (_updateClade <= 0) {
+								_updateClade = 1;
+							} else {
+								_updateClade++;
+							}
 						}
 					}
-				}
-				if (randomredReaction)
-					_genes[i].randomizeredReaction();
-				else
-					_genes[i].setredReaction(parentCode.getGene(j).getredReaction());
-				if (randomgreenReaction)
-					_genes[i].randomizegreenReaction();
-				else
-					_genes[i].setgreenReaction(parentCode.getGene(j).getgreenReaction());
-				if (randomblueReaction)
-					_genes[i].randomizeblueReaction();
-				else
-					_genes[i].setblueReaction(parentCode.getGene(j).getblueReaction());
-				if (randomplagueReaction)
-					_genes[i].randomizeplagueReaction();
-				else
-					_genes[i].setplagueReaction(parentCode.getGene(j).getplagueReaction());
-				if (randomscourgeReaction)
-					_genes[i].randomizescourgeReaction();
-				else
-					_genes[i].setscourgeReaction(parentCode.getGene(j).getscourgeReaction());
-				if (randomwhiteReaction)
-					_genes[i].randomizewhiteReaction();
-				else
-					_genes[i].setwhiteReaction(parentCode.getGene(j).getwhiteReaction());
-				if (randomgrayReaction)
-					_genes[i].randomizegrayReaction();
-				else
-					_genes[i].setgrayReaction(parentCode.getGene(j).getgrayReaction());
-				if (randomsilverReaction)
-					_genes[i].randomizesilverReaction();
-				else
-					_genes[i].setsilverReaction(parentCode.getGene(j).getsilverReaction());
-				if (randomdefaultReaction)
-					_genes[i].randomizedefaultReaction();
-				else
-					_genes[i].setdefaultReaction(parentCode.getGene(j).getdefaultReaction());
-				if (randomconsumerReaction)
-					_genes[i].randomizeconsumerReaction();
-				else
-					_genes[i].setconsumerReaction(parentCode.getGene(j).getconsumerReaction());
-				if (randomplantReaction)
-					_genes[i].randomizeplantReaction();
-				else
-					_genes[i].setplantReaction(parentCode.getGene(j).getplantReaction());
-				if (randommagentaReaction)
-					_genes[i].randomizemagentaReaction();
-				else
-					_genes[i].setmagentaReaction(parentCode.getGene(j).getmagentaReaction());
-				if (randompinkReaction)
-					_genes[i].randomizepinkReaction();
-				else
-					_genes[i].setpinkReaction(parentCode.getGene(j).getpinkReaction());
-				if (randomcoralReaction)
-					_genes[i].randomizecoralReaction();
-				else
-					_genes[i].setcoralReaction(parentCode.getGene(j).getcoralReaction());
-				if (randomorangeReaction)
-					_genes[i].randomizeorangeReaction();
-				else
-					_genes[i].setorangeReaction(parentCode.getGene(j).getorangeReaction());
-				if (randombarkReaction)
-					_genes[i].randomizebarkReaction();
-				else
-					_genes[i].setbarkReaction(parentCode.getGene(j).getbarkReaction());
-				if (randomvioletReaction)
-					_genes[i].randomizevioletReaction();
-				else
-					_genes[i].setvioletReaction(parentCode.getGene(j).getvioletReaction());
-				if (randomvirusReaction)
-					_genes[i].randomizevirusReaction();
-				else
-					_genes[i].setvirusReaction(parentCode.getGene(j).getvirusReaction());
-				if (randommaroonReaction)
-					_genes[i].randomizemaroonReaction();
-				else
-					_genes[i].setmaroonReaction(parentCode.getGene(j).getmaroonReaction());
-				if (randomcrimsonReaction)
-					_genes[i].randomizecrimsonReaction();
-				else
-					_genes[i].setcrimsonReaction(parentCode.getGene(j).getcrimsonReaction());
-				if (randomoliveReaction)
-					_genes[i].randomizeoliveReaction();
-				else
-					_genes[i].setoliveReaction(parentCode.getGene(j).getoliveReaction());
-				if (randommintReaction)
-					_genes[i].randomizemintReaction();
-				else
-					_genes[i].setmintReaction(parentCode.getGene(j).getmintReaction());
-				if (randomcreamReaction)
-					_genes[i].randomizecreamReaction();
-				else
-					_genes[i].setcreamReaction(parentCode.getGene(j).getcreamReaction());
-				if (randomspikeReaction)
-					_genes[i].randomizespikeReaction();
-				else
-					_genes[i].setspikeReaction(parentCode.getGene(j).getspikeReaction());
-				if (randomfallowReaction)
-					_genes[i].randomizefallowReaction();
-				else
-					_genes[i].setfallowReaction(parentCode.getGene(j).getfallowReaction());
-				if (randomlightblueReaction)
-					_genes[i].randomizelightblueReaction();
-				else
-					_genes[i].setlightblueReaction(parentCode.getGene(j).getlightblueReaction());
-				if (randomochreReaction)
-					_genes[i].randomizeochreReaction();
-				else
-					_genes[i].setochreReaction(parentCode.getGene(j).getochreReaction());
-				if (randomskyReaction)
-					_genes[i].randomizeskyReaction();
-				else
-					_genes[i].setskyReaction(parentCode.getGene(j).getskyReaction());
-				if (randomlilacReaction)
-					_genes[i].randomizelilacReaction();
-				else
-					_genes[i].setlilacReaction(parentCode.getGene(j).getlilacReaction());
-				if (randomfireReaction)
-					_genes[i].randomizefireReaction();
-				else
-					_genes[i].setfireReaction(parentCode.getGene(j).getfireReaction());
-				if (randomlightbrownReaction)
-					_genes[i].randomizelightbrownReaction();
-				else
-					_genes[i].setlightbrownReaction(parentCode.getGene(j).getlightbrownReaction());
-				if (randomgreenbrownReaction)
-					_genes[i].randomizegreenbrownReaction();
-				else
-					_genes[i].setgreenbrownReaction(parentCode.getGene(j).getgreenbrownReaction());
-				if (randombrownReaction)
-					_genes[i].randomizebrownReaction();
-				else
-					_genes[i].setbrownReaction(parentCode.getGene(j).getbrownReaction());
-				if (randomiceReaction)
-					_genes[i].randomizeiceReaction();
-				else
-					_genes[i].seticeReaction(parentCode.getGene(j).geticeReaction());
-				if (randombrokenReaction)
-					_genes[i].randomizebrokenReaction();
-				else
-					_genes[i].setbrokenReaction(parentCode.getGene(j).getbrokenReaction());
-				if (randomsickReaction)
-					_genes[i].randomizesickReaction();
-				else
-					_genes[i].setsickReaction(parentCode.getGene(j).getsickReaction());
-				if (randomfriendReaction)
-					_genes[i].randomizefriendReaction();
-				else
-					_genes[i].setfriendReaction(parentCode.getGene(j).getfriendReaction());
-				if (randomColor) {
-					_genes[i].randomizeColor();
-					if ((!getGene(i).getColor().equals(parentCode.getGene(j).getColor())) && (clonedGene == 0)) {
-						if (_updateClade <= 0) {
-							_updateClade = 1;
-						} else {
-							_updateClade++;
+					if (clonedGene != 0) {
+						if (clonedGene == -1) {
+							j--;
 						}
+						clonedGene = 0;
 					}
 				} else {
-					_genes[i].setColor(parentCode.getGene(j).getColor());
+					_genes[i] = parentGene;
 				}
-				if (clonedGene != 0) {
-					if (clonedGene == -1) {
-						j--;
-					}
-					clonedGene = 0;
-				}
-			} else {
-				_genes[i] = parentCode.getGene(j);
-			}			
+			}
 		}
         
-		if (Utils.random.nextInt(10000) < _mutationrate)
+		if (mutations.next())
 			randomActivity();
 		else
 			_activity = parentCode.getActivity();
-		if (Utils.random.nextInt(10000) < _mutationrate)
+		if (mutations.next())
 			randomModifiescream();
 		else
 			_modifiescream = parentCode.getModifiescream();
-		if (Utils.random.nextInt(10000) < _mutationrate)
+		if (mutations.next())
 			randomModifiesfallow();
 		else
 			_modifiesfallow = parentCode.getModifiesfallow();
-		if (Utils.random.nextInt(10000) < _mutationrate)
+		if (mutations.next())
 			randomModifiesspore();
 		else
 			_modifiesspore = parentCode.getModifiesspore();
-		if (Utils.random.nextInt(10000) < _mutationrate)
+		if (mutations.next())
 			randomAdaptspore();
 		else
 			_adaptspore = parentCode.getAdaptspore();
-		if (Utils.random.nextInt(10000) < _mutationrate)
+		if (mutations.next())
 			randomModifiesblack();
 		else
 			_modifiesblack = parentCode.getModifiesblack();
-		if (Utils.random.nextInt(10000) < _mutationrate)
+		if (mutations.next())
 			randomAdaptblack();
 		else
 			_adaptblack = parentCode.getAdaptblack();
-		if (Utils.random.nextInt(10000) < _mutationrate)
+		if (mutations.next())
 			randomPlague();
 		else
 			_plague = parentCode.getPlague();
-		if (Utils.random.nextInt(10000) < _mutationrate)
+		if (mutations.next())
 			randomDisperseChildren();
 		else
 			_disperseChildren = parentCode.getDisperseChildren();
-		if (Utils.random.nextInt(10000) < _mutationrate)
+		if (mutations.next())
 			randomGenerationBattle();
 		else
 			_generationBattle = parentCode.getGenerationBattle();
-		if (Utils.random.nextInt(10000) < _mutationrate)
+		if (mutations.next())
 			randomSiblingBattle();
 		else
 			_siblingBattle = parentCode.getSiblingBattle();
-		if (Utils.random.nextInt(10000) < _mutationrate)
+		if (mutations.next())
 			randomAltruist();
 		else
 			_altruist = parentCode.getAltruist();
-		if (Utils.random.nextInt(10000) < _mutationrate)
+		if (mutations.next())
 			randomFamilial();
 		else
 			_familial = parentCode.getFamilial();
-		if (Utils.random.nextInt(10000) < _mutationrate)
+		if (mutations.next())
 			randomSocial();
 		else
 			_social = parentCode.getSocial();
-		if (Utils.random.nextInt(10000) < _mutationrate)
+		if (mutations.next())
 			randomPeaceful();
 		else
 			_peaceful = parentCode.getPeaceful();
-		if (Utils.random.nextInt(10000) < _mutationrate)
+		if (mutations.next())
 			randomPassive();
 		else
 			_passive = parentCode.getPassive();
-		if (Utils.random.nextInt(10000) < _mutationrate)
+		if (mutations.next())
 			randomClockwise();
 		else
 			_clockwise = parentCode.getClockwise();
-		if (Utils.random.nextInt(10000) < _mutationrate)
+		if (mutations.next())
 			randomModifiesdrift();
 		else
 			_modifiesdrift = parentCode.getModifiesdrift();
-		if (Utils.random.nextInt(10000) < _mutationrate)
+		if (mutations.next())
 			randomModifiespink();
 		else
 			_modifiespink = parentCode.getModifiespink();
-		if (Utils.random.nextInt(10000) < _mutationrate)
+		if (mutations.next())
 			randomModifieslilac();
 		else
 			_modifieslilac = parentCode.getModifieslilac();
-		if (Utils.random.nextInt(10000) < _mutationrate)
+		if (mutations.next())
 			randomModifiessky();
 		else
 			_modifiessky = parentCode.getModifiessky();
-		if (Utils.random.nextInt(10000) < _mutationrate)
+		if (mutations.next())
 			randomModifiesleaf();
 		else
 			_modifiesleaf = parentCode.getModifiesleaf();
-		if (Utils.random.nextInt(10000) < _mutationrate)
+		if (mutations.next())
 			randomSelfish();
 		else
 			_selfish = parentCode.getSelfish();
 		// Add 1 to the generation number
 		_generation = parentCode.getGeneration() + 1;
 		// Add the clade identification
-		_cladeID = parentCode.getcladeID();
+		_clade = parentCode._clade;
+		// If no gene mutated the genes array is shared with the parent,
+		// and so is the phenotype
+		if (_symmetry == parentCode._symmetry && _genes == parentCode._genes)
+			_phenotype = parentCode._phenotype;
 	}
 
 	/* (non-Javadoc)
@@ -1808,9 +1611,8 @@ public class GeneticCode implements Cloneable, Serializable {
 		GeneticCode newCode = null;
 		try {
 			newCode = (GeneticCode) super.clone();
-			newCode._genes = new Gene[_genes.length];
-			for (int i=0; i<_genes.length; i++)
-				newCode._genes[i] = (Gene) _genes[i].clone();
+			// Genes never change, so the copy can share them
+			newCode._phenotype = null;
 		} catch (CloneNotSupportedException e) {// We should never reach this
 		}
 		return newCode;
@@ -10,6 +10,7 @@ import java.lang.annotation.Target;
 
 import com.google.gson.ExclusionStrategy;
 import com.google.gson.FieldAttributes;
+import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
@@ -56,12 +57,32 @@ public class GsonFileSaver {
     }
   }
 
+  /**
+   * Adds the clade id to genetic codes, which only keep the number of their clade in the
+   * {@link CladeTable}.
+   */
+  public static class GeneticCodeAdapter implements JsonSerializer<GeneticCode> {
+    private final Gson gson = new GsonBuilder()
+        .registerTypeAdapter(java.awt.Color.class, new JavaAwtColorAdapter())
+        .excludeFieldsWithoutExposeAnnotation()
+        .create();
+
+    @Override
+    public JsonElement serialize(GeneticCode src, java.lang.reflect.Type typeOfSrc,
+        JsonSerializationContext context) {
+      JsonObject obj = gson.toJsonTree(src).getAsJsonObject();
+      obj.addProperty("_cladeID", src.getcladeID());
+      return obj;
+    }
+  }
+
   public static void saveWorldJson(World world, File f) {
     try {
       final FileWriter w = new FileWriter(f);
       try {
         GsonBuilder builder = new GsonBuilder()
             .registerTypeAdapter(java.awt.Color.class, new JavaAwtColorAdapter())
+            .registerTypeAdapter(GeneticCode.class, new GeneticCodeAdapter())
             .excludeFieldsWithoutExposeAnnotation();
         w.write(builder.create().toJson(world));
       } finally {
@@ -0,0 +1,171 @@
+package biogenesis;
+
+import java.util.Arrays;
+
+/**
+ * The center and bounding box of the organisms of an {@link OrganismStore}, in one array per
+ * value, indexed by the position of the organism in the store.
+ *
+ * Code that looks at the bounds of all organisms, like building the spatial index, reads them
+ * from here one array after the other instead of visiting every organism. The values of an
+ * organism are recorded when it is added to the store and every time it changes its position
+ * or its bounds, and move with it when the store moves it to another index.
+ *
+ * The store doesn't move organisms during a frame, so every thread can record the organisms it
+ * moves without locking.
+ */
+public class KinematicStore {
+  double[] centerX = new double[0];
+  double[] centerY = new double[0];
+  /**
+   * The bounding box, from (minX, minY) inclusive to (maxX, maxY) exclusive, like
+   * {@link java.awt.Rectangle#getMinX()} and {@link java.awt.Rectangle#getMaxX()}.
+   */
+  int[] minX = new int[0];
+  int[] minY = new int[0];
+  int[] maxX = new int[0];
+  int[] maxY = new int[0];
+
+  /**
+   * Makes room for at least the given number of organisms, keeping the values of the
+   * existing ones.
+   */
+  public void ensureCapacity(int capacity) {
+    if (capacity <= minX.length) {
+      return;
+    }
+    centerX = Arrays.copyOf(centerX, capacity);
+    centerY = Arrays.copyOf(centerY, capacity);
+    minX = Arrays.copyOf(minX, capacity);
+    minY = Arrays.copyOf(minY, capacity);
+    maxX = Arrays.copyOf(maxX, capacity);
+    maxY = Arrays.copyOf(maxY, capacity);
+  }
+
+  /**
+   * Copies the current values of an organism to the given slot.
+   */
+  void record(int slot, Organism o) {
+    set(slot, o._dCenterX, o._dCenterY, o.x, o.y, o.x + o.width, o.y + o.height);
+  }
+
+  /**
+   * Sets all values of a slot.
+   */
+  public void set(int slot, double centerX, double centerY, int minX, int minY, int maxX, int maxY) {
+    this.centerX[slot] = centerX;
+    this.centerY[slot] = centerY;
+    this.minX[slot] = minX;
+    this.minY[slot] = minY;
+    this.maxX[slot] = maxX;
+    this.maxY[slot] = maxY;
+  }
+
+  /**
+   * Copies the values of one slot to another, when the store moves an organism.
+   */
+  void move(int from, int to) {
+    set(to, centerX[from], centerY[from], minX[from], minY[from], maxX[from], maxY[from]);
+  }
+
+  public int getCapacity() {
+    return minX.length;
+  }
+
+  public double getCenterX(int slot) {
+    return centerX[slot];
+  }
+
+  public double getCenterY(int slot) {
+    return centerY[slot];
+  }
+
+  public int getMinX(int slot) {
+    return minX[slot];
+  }
+
+  public int getMinY(int slot) {
+    return minY[slot];
+  }
+
+  public int getMaxX(int slot) {
+    return maxX[slot];
+  }
+
+  public int getMaxY(int slot) {
+    return maxY[slot];
+  }
+
+  /**
+   * Returns the first size slots sorted along a Z-order (Morton) curve of their centers, so
+   * that slots that are close in the returned order are also close in the world. Centers in
+   * the same square of the given size get the same key and keep their order.
+   *
+   * @param size the number of slots to sort
+   * @param cellSize the side of the squares, in pixels
+   * @return the slots in their new order
+   */
+  public int[] mortonOrder(int size, int cellSize) {
+    long[] keys = new long[size];
+    for (int i = 0; i < size; i++) {
+      int cellX = Math.max(0, Math.min(0xffff, (int) (centerX[i] / cellSize)));
+      int cellY = Math.max(0, Math.min(0xffff, (int) (centerY[i] / cellSize)));
+      keys[i] = (interleave(cellX) | interleave(cellY) << 1) << 31 | i;
+    }
+    Arrays.sort(keys);
+    int[] order = new int[size];
+    for (int i = 0; i < size; i++) {
+      order[i] = (int) (keys[i] & 0x7fffffff);
+    }
+    return order;
+  }
+
+  /**
+   * Spreads the 16 lower bits of value to the even bits of the result.
+   */
+  private static long interleave(int value) {
+    long v = value & 0xffff;
+    v = (v | v << 8) & 0x00ff00ffL;
+    v = (v | v << 4) & 0x0f0f0f0fL;
+    v = (v | v << 2) & 0x33333333L;
+    v = (v | v << 1) & 0x55555555L;
+    return v;
+  }
+
+  /**
+   * Reorders the first size slots, so that slot i gets the values of slot order[i].
+   */
+  void permute(int[] order, int size) {
+    centerX = permute(centerX, order, size);
+    centerY = permute(centerY, order, size);
+    minX = permute(minX, order, size);
+    minY = permute(minY, order, size);
+    maxX = permute(maxX, order, size);
+    maxY = permute(maxY, order, size);
+  }
+
+  private static double[] permute(double[] values, int[] order, int size) {
+    double[] result = new double[values.length];
+    for (int i = 0; i < size; i++) {
+      result[i] = values[order[i]];
+    }
+    return result;
+  }
+
+  private static int[] permute(int[] values, int[] order, int size) {
+    int[] result = new int[values.length];
+    for (int i = 0; i < size; i++) {
+      result[i] = values[order[i]];
+    }
+    return result;
+  }
+
+  /**
+   * Returns true if the bounding box of the slot intersects the given rectangle, with the same
+   * rule as {@link java.awt.Rectangle#intersects(java.awt.Rectangle)}.
+   */
+  public boolean intersects(int slot, int x, int y, int width, int height) {
+    return minX[slot] < x + width && minY[slot] < y + height && maxX[slot] > x && maxY[slot] > y
+        && width > 0 && height > 0 && maxX[slot] > minX[slot] && maxY[slot] > minY[slot];
+  }
+}
@@ -20,6 +20,7 @@ package biogenesis;
 
 import java.awt.BorderLayout;
 import java.awt.Color;
+import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.GridBagConstraints;
@@ -214,7 +215,7 @@ public class LabWindow extends JDialog implements ActionListener, ChangeListener
 		mirror = g.getMirror();
 		symmetry = g.getSymmetry();
 		for (int i=0; i<g.getNGenes(); i++)
-			genesList.add((Gene)g.getGene(i).clone());
+			genesList.add(g.getGene(i));
 		energy = 40 + 3 * symmetry * genesList.size();
 		life = Utils.MAX_AGE + (int) ((genesList.size() * symmetry)/Utils.AGE_DIVISOR);
 	}
@@ -971,7 +972,7 @@ public class LabWindow extends JDialog implements ActionListener, ChangeListener
 		if (evt.getActionCommand().startsWith("c")) {
 			int modifiedGene = Integer.parseInt(evt.getActionCommand().substring(1));
 			ColorComboBox colorCombo = (ColorComboBox) evt.getSource();
-			genesList.get(modifiedGene).setColor(colorCombo.getSelectedColor());
+			genesList.set(modifiedGene, genesList.get(modifiedGene).withColor(colorCombo.getSelectedColor()));
 			drawPanel.repaint();
 		}
 		// Add a new gene after the last one
@@ -995,10 +996,8 @@ public class LabWindow extends JDialog implements ActionListener, ChangeListener
 		}
 		// Clone a gene and add it before the selected position
 		if (evt.getActionCommand().startsWith("r")) { //$NON-NLS-1$
-			Gene gene = new Gene(2.0,0.0,Color.GREEN,-1,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0);
 			int clonedGene = Integer.parseInt(evt.getActionCommand().substring(1));
-			gene = genesList.get(clonedGene);
-			genesList.add(clonedGene, (Gene)gene.clone());
+			genesList.add(clonedGene, genesList.get(clonedGene));
 			refreshGenesPanel();
 		}
 	}
@@ -1357,165 +1356,167 @@ public class LabWindow extends JDialog implements ActionListener, ChangeListener
 
 	@Override
 	public void stateChanged(ChangeEvent evt) {
+		// Genes never change, so every edit puts a new gene in the row of the spinner
+		int row = ((GridBagLayout) genesPanel.getLayout()).getConstraints((Component) evt.getSource()).gridy - 1;
 		if (evt.getSource() instanceof LengthSpinner) {
 			LengthSpinner spinner = (LengthSpinner) evt.getSource();
-			spinner.getGene().setLength(spinner.getLength());
+			genesList.set(row, genesList.get(row).withLength(spinner.getLength()));
 		}
 		if (evt.getSource() instanceof ThetaSpinner) {
 			ThetaSpinner spinner = (ThetaSpinner) evt.getSource();
-			spinner.getGene().setTheta(spinner.getTheta());
+			genesList.set(row, genesList.get(row).withTheta(spinner.getTheta()));
 		}
 		if (evt.getSource() instanceof BranchSpinner) {
 			BranchSpinner spinner = (BranchSpinner) evt.getSource();
-			spinner.getGene().setBranch(spinner.getBranch());
+			genesList.set(row, genesList.get(row).withBranch(spinner.getBranch()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner1) {
 			ReactionSpinner1 spinner = (ReactionSpinner1) evt.getSource();
-			spinner.getGene().setgreenReaction(spinner.getgreenReaction());
+			genesList.set(row, genesList.get(row).withgreenReaction(spinner.getgreenReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner2) {
 			ReactionSpinner2 spinner = (ReactionSpinner2) evt.getSource();
-			spinner.getGene().setbarkReaction(spinner.getbarkReaction());
+			genesList.set(row, genesList.get(row).withbarkReaction(spinner.getbarkReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner3) {
 			ReactionSpinner3 spinner = (ReactionSpinner3) evt.getSource();
-			spinner.getGene().setredReaction(spinner.getredReaction());
+			genesList.set(row, genesList.get(row).withredReaction(spinner.getredReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner4) {
 			ReactionSpinner4 spinner = (ReactionSpinner4) evt.getSource();
-			spinner.getGene().setfireReaction(spinner.getfireReaction());
+			genesList.set(row, genesList.get(row).withfireReaction(spinner.getfireReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner5) {
 			ReactionSpinner5 spinner = (ReactionSpinner5) evt.getSource();
-			spinner.getGene().setorangeReaction(spinner.getorangeReaction());
+			genesList.set(row, genesList.get(row).withorangeReaction(spinner.getorangeReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner6) {
 			ReactionSpinner6 spinner = (ReactionSpinner6) evt.getSource();
-			spinner.getGene().setmaroonReaction(spinner.getmaroonReaction());
+			genesList.set(row, genesList.get(row).withmaroonReaction(spinner.getmaroonReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner7) {
 			ReactionSpinner7 spinner = (ReactionSpinner7) evt.getSource();
-			spinner.getGene().setcrimsonReaction(spinner.getcrimsonReaction());
+			genesList.set(row, genesList.get(row).withcrimsonReaction(spinner.getcrimsonReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner8) {
 			ReactionSpinner8 spinner = (ReactionSpinner8) evt.getSource();
-			spinner.getGene().setpinkReaction(spinner.getpinkReaction());
+			genesList.set(row, genesList.get(row).withpinkReaction(spinner.getpinkReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner9) {
 			ReactionSpinner9 spinner = (ReactionSpinner9) evt.getSource();
-			spinner.getGene().setcreamReaction(spinner.getcreamReaction());
+			genesList.set(row, genesList.get(row).withcreamReaction(spinner.getcreamReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner10) {
 			ReactionSpinner10 spinner = (ReactionSpinner10) evt.getSource();
-			spinner.getGene().setsilverReaction(spinner.getsilverReaction());
+			genesList.set(row, genesList.get(row).withsilverReaction(spinner.getsilverReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner11) {
 			ReactionSpinner11 spinner = (ReactionSpinner11) evt.getSource();
-			spinner.getGene().setspikeReaction(spinner.getspikeReaction());
+			genesList.set(row, genesList.get(row).withspikeReaction(spinner.getspikeReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner12) {
 			ReactionSpinner12 spinner = (ReactionSpinner12) evt.getSource();
-			spinner.getGene().setlilacReaction(spinner.getlilacReaction());
+			genesList.set(row, genesList.get(row).withlilacReaction(spinner.getlilacReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner13) {
 			ReactionSpinner13 spinner = (ReactionSpinner13) evt.getSource();
-			spinner.getGene().setgrayReaction(spinner.getgrayReaction());
+			genesList.set(row, genesList.get(row).withgrayReaction(spinner.getgrayReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner14) {
 			ReactionSpinner14 spinner = (ReactionSpinner14) evt.getSource();
-			spinner.getGene().setvioletReaction(spinner.getvioletReaction());
+			genesList.set(row, genesList.get(row).withvioletReaction(spinner.getvioletReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner15) {
 			ReactionSpinner15 spinner = (ReactionSpinner15) evt.getSource();
-			spinner.getGene().setoliveReaction(spinner.getoliveReaction());
+			genesList.set(row, genesList.get(row).witholiveReaction(spinner.getoliveReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner16) {
 			ReactionSpinner16 spinner = (ReactionSpinner16) evt.getSource();
-			spinner.getGene().setskyReaction(spinner.getskyReaction());
+			genesList.set(row, genesList.get(row).withskyReaction(spinner.getskyReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner17) {
 			ReactionSpinner17 spinner = (ReactionSpinner17) evt.getSource();
-			spinner.getGene().setblueReaction(spinner.getblueReaction());
+			genesList.set(row, genesList.get(row).withblueReaction(spinner.getblueReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner18) {
 			ReactionSpinner18 spinner = (ReactionSpinner18) evt.getSource();
-			spinner.getGene().setochreReaction(spinner.getochreReaction());
+			genesList.set(row, genesList.get(row).withochreReaction(spinner.getochreReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner19) {
 			ReactionSpinner19 spinner = (ReactionSpinner19) evt.getSource();
-			spinner.getGene().setfallowReaction(spinner.getfallowReaction());
+			genesList.set(row, genesList.get(row).withfallowReaction(spinner.getfallowReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner20) {
 			ReactionSpinner20 spinner = (ReactionSpinner20) evt.getSource();
-			spinner.getGene().setwhiteReaction(spinner.getwhiteReaction());
+			genesList.set(row, genesList.get(row).withwhiteReaction(spinner.getwhiteReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner21) {
 			ReactionSpinner21 spinner = (ReactionSpinner21) evt.getSource();
-			spinner.getGene().setvirusReaction(spinner.getvirusReaction());
+			genesList.set(row, genesList.get(row).withvirusReaction(spinner.getvirusReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner22) {
 			ReactionSpinner22 spinner = (ReactionSpinner22) evt.getSource();
-			spinner.getGene().setplagueReaction(spinner.getplagueReaction());
+			genesList.set(row, genesList.get(row).withplagueReaction(spinner.getplagueReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner23) {
 			ReactionSpinner23 spinner = (ReactionSpinner23) evt.getSource();
-			spinner.getGene().setscourgeReaction(spinner.getscourgeReaction());
+			genesList.set(row, genesList.get(row).withscourgeReaction(spinner.getscourgeReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner24) {
 			ReactionSpinner24 spinner = (ReactionSpinner24) evt.getSource();
-			spinner.getGene().setcoralReaction(spinner.getcoralReaction());
+			genesList.set(row, genesList.get(row).withcoralReaction(spinner.getcoralReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner25) {
 			ReactionSpinner25 spinner = (ReactionSpinner25) evt.getSource();
-			spinner.getGene().setmintReaction(spinner.getmintReaction());
+			genesList.set(row, genesList.get(row).withmintReaction(spinner.getmintReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner26) {
 			ReactionSpinner26 spinner = (ReactionSpinner26) evt.getSource();
-			spinner.getGene().setmagentaReaction(spinner.getmagentaReaction());
+			genesList.set(row, genesList.get(row).withmagentaReaction(spinner.getmagentaReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner27) {
 			ReactionSpinner27 spinner = (ReactionSpinner27) evt.getSource();
-			spinner.getGene().setdefaultReaction(spinner.getdefaultReaction());
+			genesList.set(row, genesList.get(row).withdefaultReaction(spinner.getdefaultReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner28) {
 			ReactionSpinner28 spinner = (ReactionSpinner28) evt.getSource();
-			spinner.getGene().setconsumerReaction(spinner.getconsumerReaction());
+			genesList.set(row, genesList.get(row).withconsumerReaction(spinner.getconsumerReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner29) {
 			ReactionSpinner29 spinner = (ReactionSpinner29) evt.getSource();
-			spinner.getGene().setplantReaction(spinner.getplantReaction());
+			genesList.set(row, genesList.get(row).withplantReaction(spinner.getplantReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner30) {
 			ReactionSpinner30 spinner = (ReactionSpinner30) evt.getSource();
-			spinner.getGene().seticeReaction(spinner.geticeReaction());
+			genesList.set(row, genesList.get(row).withiceReaction(spinner.geticeReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner31) {
 			ReactionSpinner31 spinner = (ReactionSpinner31) evt.getSource();
-			spinner.getGene().setlightblueReaction(spinner.getlightblueReaction());
+			genesList.set(row, genesList.get(row).withlightblueReaction(spinner.getlightblueReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner32) {
 			ReactionSpinner32 spinner = (ReactionSpinner32) evt.getSource();
-			spinner.getGene().setlightbrownReaction(spinner.getlightbrownReaction());
+			genesList.set(row, genesList.get(row).withlightbrownReaction(spinner.getlightbrownReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner33) {
 			ReactionSpinner33 spinner = (ReactionSpinner33) evt.getSource();
-			spinner.getGene().setgreenbrownReaction(spinner.getgreenbrownReaction());
+			genesList.set(row, genesList.get(row).withgreenbrownReaction(spinner.getgreenbrownReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner34) {
 			ReactionSpinner34 spinner = (ReactionSpinner34) evt.getSource();
-			spinner.getGene().setbrokenReaction(spinner.getbrokenReaction());
+			genesList.set(row, genesList.get(row).withbrokenReaction(spinner.getbrokenReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner35) {
 			ReactionSpinner35 spinner = (ReactionSpinner35) evt.getSource();
-			spinner.getGene().setbrownReaction(spinner.getbrownReaction());
+			genesList.set(row, genesList.get(row).withbrownReaction(spinner.getbrownReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner36) {
 			ReactionSpinner36 spinner = (ReactionSpinner36) evt.getSource();
-			spinner.getGene().setsickReaction(spinner.getsickReaction());
+			genesList.set(row, genesList.get(row).withsickReaction(spinner.getsickReaction()));
 		}
 		if (evt.getSource() instanceof ReactionSpinner37) {
 			ReactionSpinner37 spinner = (ReactionSpinner37) evt.getSource();
-			spinner.getGene().setfriendReaction(spinner.getfriendReaction());
+			genesList.set(row, genesList.get(row).withfriendReaction(spinner.getfriendReaction()));
 		}
 		drawPanel.repaint();
 	}
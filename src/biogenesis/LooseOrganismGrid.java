@@ -0,0 +1,339 @@
+package biogenesis;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A multi-level loose grid, where every organism is stored in exactly one cell.
+ *
+ * Level 0 has cells of `bucketSize` pixels, and every next level has cells twice as big, up to
+ * a level with a single cell covering the whole world. An organism is stored in the first level
+ * where its bounding box is not bigger than the cells, in the cell that contains the center of
+ * its bounding box. The organism may stick out of its cell, but never by more than half a cell
+ * (that's what makes the grid "loose"), so a search only needs to look at the cells whose area
+ * extended by half a cell overlaps the searched area:
+ * <pre>
+ *          +- - - - - - - - - - -+
+ *          .    +----------+     .
+ *          .    |  cell  +-+--+  .   the organism's center is in the cell,
+ *          .    |        |  o |  .   so it can't be outside the dotted area
+ *          .    +--------+-+--+  .
+ *          +- - - - - - - - - - -+
+ * </pre>
+ * Compared to {@link OrganismBuckets} a big organism is not stored in all the buckets it
+ * touches, so searches visit it only once, and it doesn't need to move between cells as often.
+ */
+public class LooseOrganismGrid implements OrganismIndex {
+  private final int bucketSize;
+  private final int maxWidth;
+  private final int maxHeight;
+  private final int levelCount;
+  /**
+   * Highest cell index on each level.
+   */
+  private final int[] levelMaxX;
+  private final int[] levelMaxY;
+  /**
+   * The cells of each level, row by row.
+   */
+  private final Cell[][] cells;
+  /**
+   * Number of organisms on each level, used to skip empty levels in searches.
+   */
+  private final AtomicIntegerArray levelPopulation;
+
+  public LooseOrganismGrid(final int mapWidth, final int mapHeight, final int bucketSize) {
+    this.bucketSize = bucketSize;
+    this.maxWidth = (mapWidth + bucketSize - 1) / bucketSize;
+    this.maxHeight = (mapHeight + bucketSize - 1) / bucketSize;
+
+    int levels = 1;
+    while ((bucketSize << (levels - 1)) < Math.max(mapWidth, mapHeight)) {
+      levels++;
+    }
+    this.levelCount = levels;
+    this.levelMaxX = new int[levels];
+    this.levelMaxY = new int[levels];
+    this.cells = new Cell[levels][];
+    this.levelPopulation = new AtomicIntegerArray(levels);
+    for (int level = 0; level < levels; level++) {
+      levelMaxX[level] = maxWidth >> level;
+      levelMaxY[level] = maxHeight >> level;
+      cells[level] = new Cell[(levelMaxX[level] + 1) * (levelMaxY[level] + 1)];
+      for (int i = 0; i < cells[level].length; i++) {
+        cells[level][i] = new Cell();
+      }
+    }
+  }
+
+  @Override
+  public void insert(Organism o) {
+    final int level = getLevel(o);
+    addToCell(o, level, getCellX(o, level), getCellY(o, level));
+  }
+
+  @Override
+  public void update(Organism o) {
+    final int level = getLevel(o);
+    final int cellX = getCellX(o, level);
+    final int cellY = getCellY(o, level);
+    if (level == o._bucketLevel && cellX == o._bucketMinX && cellY == o._bucketMinY) {
+      return;
+    }
+
+    removeFromCell(o);
+    addToCell(o, level, cellX, cellY);
+  }
+
+  @Override
+  public void remove(Organism o) {
+    removeFromCell(o);
+  }
+
+  /**
+   * Nothing to do, the grid is always up to date.
+   */
+  @Override
+  public void prepareFrame(OrganismStore organisms) {
+  }
+
+  private void addToCell(Organism o, int level, int cellX, int cellY) {
+    o._bucketLevel = level;
+    o._bucketMinX = o._bucketMaxX = cellX;
+    o._bucketMinY = o._bucketMaxY = cellY;
+    cells[level][cellY * (levelMaxX[level] + 1) + cellX].add(o);
+    levelPopulation.incrementAndGet(level);
+  }
+
+  private void removeFromCell(Organism o) {
+    if (o._bucketMinX < 0) {
+      return; // not in the grid
+    }
+
+    final int level = o._bucketLevel;
+    // Organism.equals() compares IDs, but we want to remove this exact instance
+    if (cells[level][o._bucketMinY * (levelMaxX[level] + 1) + o._bucketMinX].removeIf(match -> match == o)) {
+      levelPopulation.decrementAndGet(level);
+    }
+
+    o._bucketLevel = 0;
+    o._bucketMinX = o._bucketMaxX = -1;
+    o._bucketMinY = o._bucketMaxY = -1;
+  }
+
+  /**
+   * Returns the first level where the cells are at least as big as the organism.
+   */
+  private int getLevel(Organism o) {
+    final int size = Math.max(o.width, o.height);
+    int level = 0;
+    while (level < levelCount - 1 && (bucketSize << level) < size) {
+      level++;
+    }
+    return level;
+  }
+
+  private int getCellX(Organism o, int level) {
+    return Utils.between((o.x + o.width / 2) / (bucketSize << level), 0, levelMaxX[level]);
+  }
+
+  private int getCellY(Organism o, int level) {
+    return Utils.between((o.y + o.height / 2) / (bucketSize << level), 0, levelMaxY[level]);
+  }
+
+  @Override
+  public Organism findFirst(Organism o, OrganismMatcher matcher) {
+    return findFirst(o.getMinX(), o.getMinY(), o.getMaxX(), o.getMaxY(), matcher);
+  }
+
+  /**
+   * Iterates through all organisms that potentially overlap the given area, until the matcher
+   * returns true.
+   */
+  private Organism findFirst(double minX, double minY, double maxX, double maxY, OrganismMatcher matcher) {
+    for (int level = 0; level < levelCount; level++) {
+      if (levelPopulation.get(level) == 0) {
+        continue;
+      }
+      final int cellSize = bucketSize << level;
+      final int halfCell = cellSize / 2;
+      final int rowLength = levelMaxX[level] + 1;
+      int minx, miny, maxx, maxy;
+      if (level == levelCount - 1) {
+        // Organisms bigger than the cells of the last level are stored here too
+        minx = 0;
+        miny = 0;
+        maxx = levelMaxX[level];
+        maxy = levelMaxY[level];
+      } else {
+        minx = Math.max(0, (int) Math.floor((minX - halfCell) / cellSize));
+        miny = Math.max(0, (int) Math.floor((minY - halfCell) / cellSize));
+        maxx = Math.min(levelMaxX[level], (int) ((maxX + halfCell) / cellSize));
+        maxy = Math.min(levelMaxY[level], (int) ((maxY + halfCell) / cellSize));
+      }
+      for (int y = miny; y <= maxy; y++) {
+        for (int x = minx; x <= maxx; x++) {
+          for (Organism match : cells[level][y * rowLength + x]) {
+            if (matcher.match(match)) {
+              return match;
+            }
+          }
+        }
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Returns the organisms which bounding box touches the given bucket of the first level, just
+   * like {@link OrganismBuckets#getBucket(int, int)}. Nothing is copied: the collection walks
+   * the cells that can hold such organisms every time it is iterated.
+   */
+  @Override
+  public Collection<Organism> getBucket(final int x, final int y) {
+    return new AbstractCollection<Organism>() {
+      @Override
+      public Iterator<Organism> iterator() {
+        return new BucketIterator(x, y);
+      }
+
+      @Override
+      public int size() {
+        int size = 0;
+        for (Iterator<Organism> it = iterator(); it.hasNext(); it.next()) {
+          size++;
+        }
+        return size;
+      }
+    };
+  }
+
+  /**
+   * Returns true if the bounding box of the organism touches the given bucket of the first level.
+   */
+  private boolean touches(Organism o, int x, int y) {
+    final int minx = Math.max(0, (int) (o.getMinX() / (double) bucketSize));
+    final int miny = Math.max(0, (int) (o.getMinY() / (double) bucketSize));
+    final int maxx = Math.min(maxWidth, (int) (o.getMaxX() / (double) bucketSize));
+    final int maxy = Math.min(maxHeight, (int) (o.getMaxY() / (double) bucketSize));
+    return minx <= x && x <= maxx && miny <= y && y <= maxy;
+  }
+
+  @Override
+  public int getMaxWidth() {
+    return maxWidth;
+  }
+
+  @Override
+  public int getMaxHeight() {
+    return maxHeight;
+  }
+
+  @Override
+  public int getBucketSize() {
+    return bucketSize;
+  }
+
+  /**
+   * Walks the cells of every level that can hold organisms touching a bucket of the first level,
+   * the same cells that {@link #findFirst} searches for the area of the bucket, and returns the
+   * organisms that really touch it.
+   */
+  private class BucketIterator implements Iterator<Organism> {
+    private final int bucketX;
+    private final int bucketY;
+    private int level = -1;
+    private int minx, maxx, maxy;
+    private int cellX, cellY;
+    private Iterator<Organism> cell = Collections.emptyIterator();
+    private Organism next;
+
+    BucketIterator(int bucketX, int bucketY) {
+      this.bucketX = bucketX;
+      this.bucketY = bucketY;
+      advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Organism next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      Organism result = next;
+      advance();
+      return result;
+    }
+
+    private void advance() {
+      do {
+        while (cell.hasNext()) {
+          Organism o = cell.next();
+          if (touches(o, bucketX, bucketY)) {
+            next = o;
+            return;
+          }
+        }
+      } while (nextCell());
+      next = null;
+    }
+
+    /**
+     * Moves to the next cell to search, on this level or the next ones that are not empty.
+     * Returns false if there are no more cells.
+     */
+    private boolean nextCell() {
+      if (level >= 0 && ++cellX > maxx) {
+        cellX = minx;
+        cellY++;
+      }
+      while (level < 0 || cellY > maxy) {
+        if (++level == levelCount) {
+          return false;
+        }
+        if (levelPopulation.get(level) == 0) {
+          continue;
+        }
+        final int cellSize = bucketSize << level;
+        final int halfCell = cellSize / 2;
+        final double left = bucketX * bucketSize;
+        final double top = bucketY * bucketSize;
+        if (level == levelCount - 1) {
+          // Organisms bigger than the cells of the last level are stored here too
+          minx = 0;
+          cellY = 0;
+          maxx = levelMaxX[level];
+          maxy = levelMaxY[level];
+        } else {
+          minx = Math.max(0, (int) Math.floor((left - halfCell) / cellSize));
+          cellY = Math.max(0, (int) Math.floor((top - halfCell) / cellSize));
+          maxx = Math.min(levelMaxX[level], (int) ((left + bucketSize - 1 + halfCell) / cellSize));
+          maxy = Math.min(levelMaxY[level], (int) ((top + bucketSize - 1 + halfCell) / cellSize));
+        }
+        cellX = minx;
+        if (minx > maxx) {
+          cellY = maxy + 1;
+        }
+      }
+      cell = cells[level][cellY * (levelMaxX[level] + 1) + cellX].iterator();
+      return true;
+    }
+  }
+
+  /**
+   * A cell of the grid. It can be iterated while other threads add and remove organisms.
+   */
+  private static final class Cell extends CopyOnWriteArrayList<Organism> {
+    private static final long serialVersionUID = 1L;
+  }
+}
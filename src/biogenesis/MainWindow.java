@@ -52,6 +52,7 @@ import java.io.PrintStream;
 import java.lang.reflect.InvocationTargetException;
 import java.text.NumberFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
@@ -1073,7 +1074,7 @@ public class MainWindow extends JFrame implements MainWindowInterface {
 		public void actionPerformed(ActionEvent e) {
 			if (_statisticsWindow != null)
 				_statisticsWindow.dispose();
-			_statisticsWindow = new StatisticsWindow(MainWindow.this, _world, _visibleWorld, _world.worldStatistics, _world._organisms);
+			_statisticsWindow = new StatisticsWindow(MainWindow.this, _world, _visibleWorld, _world.worldStatistics);
 		}
 	}
 
@@ -1380,10 +1381,7 @@ public class MainWindow extends JFrame implements MainWindowInterface {
 	}
 
 	public void saveCladeImage(File f) {
-		CladeStats cladeStats;
-		synchronized (_world._organisms) {
-			cladeStats = new CladeStats(_world._organisms);
-		}
+		CladeStats cladeStats = new CladeStats(Arrays.asList(_world.getOrganismsSnapshot()));
 		Rectangle bounds = cladeStats.getBounds();
 		if (bounds.width == 0 || bounds.height == 0) {
 			return;
@@ -1650,11 +1648,9 @@ public class MainWindow extends JFrame implements MainWindowInterface {
 		new javax.swing.Timer(1000 / Utils.STATUS_BAR_REFRESH_FPS, new ActionListener() {
 			@Override
 			public void actionPerformed(ActionEvent e) {
-				synchronized (_world._organisms) {
-					updateStatusLabel();
-					historicalFrames.remove(0);
-					historicalFrames.add(nFrames);
-				}
+				updateStatusLabel();
+				historicalFrames.remove(0);
+				historicalFrames.add(nFrames);
 			}
 		}).start();
 
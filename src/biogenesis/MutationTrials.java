@@ -0,0 +1,85 @@
+package biogenesis;
+
+/**
+ * The mutation checks of a new genetic code: a long row of trials that succeed with probability
+ * rate / 10000 each, where rate is the mutation rate of the code. Mutations are rare, so instead
+ * of drawing a number for every trial it draws how many trials fail before the next success,
+ * which follows a geometric distribution. Checking a whole gene, or all genes at once, then
+ * costs a comparison unless something mutates. Instances are meant to be local to a method and
+ * must not be shared between threads.
+ */
+public final class MutationTrials {
+  /**
+   * The gap used when trials never succeed. It is far from overflowing when trials are
+   * subtracted from it.
+   */
+  private static final long NEVER = Long.MAX_VALUE / 2;
+
+  private final RandomSource source;
+  private final int rate;
+  private final double logFailure;
+  /**
+   * The number of trials that fail before the next success.
+   */
+  private long gap;
+
+  /**
+   * @param source where the random numbers come from
+   * @param rate the probability of success of every trial, in 1/10000
+   */
+  public MutationTrials(RandomSource source, int rate) {
+    this.source = source;
+    this.rate = rate;
+    this.logFailure = Math.log1p(-rate / 10000.0);
+    gap = nextGap();
+  }
+
+  /**
+   * Runs one trial and returns true if it succeeds.
+   */
+  public boolean next() {
+    return next(1) != 0;
+  }
+
+  /**
+   * Runs the next count trials, between 1 and 64, and returns the ones that succeed as the bits
+   * of a long: bit i is set if trial i succeeded.
+   */
+  public long next(int count) {
+    long successes = 0;
+    int trial = 0;
+    while (gap < count - trial) {
+      trial += (int) gap;
+      successes |= 1L << trial;
+      trial++;
+      gap = nextGap();
+    }
+    gap -= count - trial;
+    return successes;
+  }
+
+  /**
+   * Runs the next count trials if none of them would succeed, and returns true. Otherwise it
+   * runs none of them and returns false, so that the caller can run them with {@link #next}.
+   */
+  public boolean skip(long count) {
+    if (gap < count) {
+      return false;
+    }
+    gap -= count;
+    return true;
+  }
+
+  private long nextGap() {
+    if (rate <= 0) {
+      return NEVER;
+    }
+    if (rate >= 10000) {
+      return 0;
+    }
+    // The probability that the gap is at least k is (1 - p)^k, the same as the probability
+    // that 1 - u, which is never 0, is at most (1 - p)^k
+    double failures = Math.floor(Math.log(1.0 - source.nextDouble()) / logFailure);
+    return failures < NEVER ? (long) failures : NEVER;
+  }
+}
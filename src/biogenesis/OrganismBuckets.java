@@ -1,8 +1,8 @@
 package biogenesis;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Stores a 2D array of buckets, and stores Organisms in one or more buckets that the organism touches.
@@ -21,36 +21,91 @@ import java.util.Collections;
  *    |           |           |           |
  *    ...
  * </pre>
+ *
+ * The grid is kept alive for the whole life of the world: organisms are inserted when they are
+ * added to the world, updated when they move and removed when they are removed from the world.
+ * Buckets are copy-on-write lists: organisms only change buckets when they cross a bucket
+ * boundary, so writes are rare, and readers can iterate a bucket without locking it while
+ * other threads move organisms around.
  */
-public class OrganismBuckets {
+public class OrganismBuckets implements OrganismIndex {
   private final int bucketSize;
   private final int maxWidth;
   private final int maxHeight;
-  private final Collection<Organism>[][] buckets;
+  private final List<Organism>[][] buckets;
 
   public OrganismBuckets(final int mapWidth, final int mapHeight, final int bucketSize) {
     this.bucketSize = bucketSize;
 
     this.maxWidth = (mapWidth + bucketSize - 1) / bucketSize;
     this.maxHeight = (mapHeight + bucketSize - 1) / bucketSize;
-    this.buckets = new Collection[maxHeight + 1][maxWidth + 1];
+    this.buckets = new List[maxHeight + 1][maxWidth + 1];
     for (int y = 0; y <= maxHeight; y++) {
       for (int x = 0; x <= maxWidth; x++) {
-        buckets[y][x] = Collections.synchronizedList(new ArrayList<>());
+        buckets[y][x] = new CopyOnWriteArrayList<>();
       }
     }
   }
 
   /**
-   * Inserts the organism into the grid.
+   * Inserts the organism into the grid, and remembers which cells it was stored in so that
+   * {@link #update(Organism)} and {@link #remove(Organism)} can find it later.
    * @param o
    */
+  @Override
   public void insert(Organism o) {
     final int minx = Math.max(0, (int) (o.getMinX() / (double) bucketSize));
     final int miny = Math.max(0, (int) (o.getMinY() / (double) bucketSize));
     final int maxx = Math.min(maxWidth, (int) (o.getMaxX() / (double) bucketSize));
     final int maxy = Math.min(maxHeight, (int) (o.getMaxY() / (double) bucketSize));
 
+    addToCells(o, minx, miny, maxx, maxy);
+  }
+
+  /**
+   * Moves the organism to the cells that its current bounding box touches. Nothing is done
+   * if the bounding box didn't cross a cell boundary since the last insert or update, which
+   * is the case for most frames of most organisms.
+   * @param o
+   */
+  @Override
+  public void update(Organism o) {
+    final int minx = Math.max(0, (int) (o.getMinX() / (double) bucketSize));
+    final int miny = Math.max(0, (int) (o.getMinY() / (double) bucketSize));
+    final int maxx = Math.min(maxWidth, (int) (o.getMaxX() / (double) bucketSize));
+    final int maxy = Math.min(maxHeight, (int) (o.getMaxY() / (double) bucketSize));
+
+    if (minx == o._bucketMinX && miny == o._bucketMinY && maxx == o._bucketMaxX && maxy == o._bucketMaxY) {
+      return;
+    }
+
+    removeFromCells(o);
+    addToCells(o, minx, miny, maxx, maxy);
+  }
+
+  /**
+   * Removes the organism from all the cells it was stored in.
+   * Does nothing if the organism is not in the grid.
+   * @param o
+   */
+  @Override
+  public void remove(Organism o) {
+    removeFromCells(o);
+  }
+
+  /**
+   * Nothing to do, the buckets are always up to date.
+   */
+  @Override
+  public void prepareFrame(OrganismStore organisms) {
+  }
+
+  private void addToCells(Organism o, int minx, int miny, int maxx, int maxy) {
+    o._bucketMinX = minx;
+    o._bucketMinY = miny;
+    o._bucketMaxX = maxx;
+    o._bucketMaxY = maxy;
+
     if (minx == maxx && miny == maxy) {
       buckets[miny][minx].add(o);
       return;
@@ -63,17 +118,22 @@ public class OrganismBuckets {
     }
   }
 
-  /**
-   * Matcher that is used in {@link #findFirst(Organism, OrganismMatcher)}.
-   */
-  public interface OrganismMatcher {
-    /**
-     * Returns true if the given organism matches the criteria. Usually used for
-     * collision detection.
-     * @param o The organism to test.
-     * @return True if the organism matches the criteria.
-     */
-    boolean match(Organism o);
+  private void removeFromCells(Organism o) {
+    if (o._bucketMinX < 0) {
+      return; // not in the grid
+    }
+
+    for (int y = o._bucketMinY; y <= o._bucketMaxY; y++) {
+      for (int x = o._bucketMinX; x <= o._bucketMaxX; x++) {
+        // Organism.equals() compares IDs, but we want to remove this exact instance
+        buckets[y][x].removeIf(match -> match == o);
+      }
+    }
+
+    o._bucketMinX = -1;
+    o._bucketMinY = -1;
+    o._bucketMaxX = -1;
+    o._bucketMaxY = -1;
   }
 
   /**
@@ -84,6 +144,7 @@ public class OrganismBuckets {
    *          box of the organism.
    * @return The first organism that matches the given matcher, or null if no match.
    */
+  @Override
   public Organism findFirst(Organism o, OrganismMatcher matcher) {
     final int minx = Math.max(0, (int) (o.getMinX() / (double) bucketSize));
     final int miny = Math.max(0, (int) (o.getMinY() / (double) bucketSize));
@@ -91,11 +152,9 @@ public class OrganismBuckets {
     final int maxy = Math.min(maxHeight, (int) (o.getMaxY() / (double) bucketSize));
 
     if (minx == maxx && miny == maxy) {
-      synchronized (buckets[miny][minx]) {
-        for (Organism match : buckets[miny][minx]) {
-          if (matcher.match(match)) {
-            return match;
-          }
+      for (Organism match : buckets[miny][minx]) {
+        if (matcher.match(match)) {
+          return match;
         }
       }
       return null;
@@ -103,11 +162,9 @@ public class OrganismBuckets {
 
     for (int y = miny; y <= maxy; y++) {
       for (int x = minx; x <= maxx; x++) {
-        synchronized (buckets[y][x]) {
-          for (Organism match : buckets[y][x]) {
-            if (matcher.match(match)) {
-              return match;
-            }
+        for (Organism match : buckets[y][x]) {
+          if (matcher.match(match)) {
+            return match;
           }
         }
       }
@@ -116,6 +173,11 @@ public class OrganismBuckets {
     return null;
   }
 
+  /**
+   * Returns the organisms in the bucket. Organisms can move in and out of the bucket at any time,
+   * but iterating it is safe: the iterator works on a snapshot of the bucket.
+   */
+  @Override
   public Collection<Organism> getBucket(int x, int y) {
     // if (x < 0 || x > maxWidth || y < 0 || y > maxHeight) {
     //   return new ArrayList<>();
@@ -123,14 +185,17 @@ public class OrganismBuckets {
     return buckets[y][x];
   }
 
+  @Override
   public int getMaxWidth() {
     return maxWidth;
   }
 
+  @Override
   public int getMaxHeight() {
     return maxHeight;
   }
 
+  @Override
   public int getBucketSize() {
     return bucketSize;
   }
@@ -0,0 +1,70 @@
+package biogenesis;
+
+import java.util.Collection;
+
+/**
+ * Spatial index of the organisms in a world, used for collision detection and to find the
+ * organisms that need to be drawn.
+ *
+ * The world is split into a 2D grid of square buckets of {@link #getBucketSize()} pixels, and
+ * organisms can be looked up by the buckets their bounding box touches. There are multiple
+ * implementations with different memory layouts, see {@link OrganismIndexType}.
+ */
+public interface OrganismIndex {
+  /**
+   * Matcher that is used in {@link #findFirst(Organism, OrganismMatcher)}.
+   */
+  public interface OrganismMatcher {
+    /**
+     * Returns true if the given organism matches the criteria. Usually used for
+     * collision detection.
+     * @param o The organism to test.
+     * @return True if the organism matches the criteria.
+     */
+    boolean match(Organism o);
+  }
+
+  /**
+   * Inserts an organism that was just added to the world.
+   */
+  void insert(Organism o);
+
+  /**
+   * Called after the organism has moved, so the index can follow its new bounding box.
+   */
+  void update(Organism o);
+
+  /**
+   * Removes an organism that is removed from the world.
+   * Does nothing if the organism is not in the index.
+   */
+  void remove(Organism o);
+
+  /**
+   * Called at the start of every frame, before any organism moves.
+   * @param organisms All organisms of the world.
+   */
+  void prepareFrame(OrganismStore organisms);
+
+  /**
+   * Iterates through all organisms that potentially overlap the given organism `o`.
+   * The iteration stops when the given <pre>matcher</pre> returns true and the
+   * matching organism is returned.
+   * @param o The organism to determine which buckets to search. Only using the bounding
+   *          box of the organism.
+   * @return The first organism that matches the given matcher, or null if no match.
+   */
+  Organism findFirst(Organism o, OrganismMatcher matcher);
+
+  /**
+   * Returns the organisms in the bucket. It is safe to iterate the returned collection while
+   * other threads move organisms around.
+   */
+  Collection<Organism> getBucket(int x, int y);
+
+  int getMaxWidth();
+
+  int getMaxHeight();
+
+  int getBucketSize();
+}
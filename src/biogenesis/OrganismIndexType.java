@@ -0,0 +1,35 @@
+package biogenesis;
+
+/**
+ * The available implementations of {@link OrganismIndex}.
+ */
+public enum OrganismIndexType {
+  /**
+   * {@link OrganismBuckets}: one list per bucket, updated incrementally as organisms move.
+   */
+  BUCKETS,
+  /**
+   * {@link FlatOrganismBuckets}: all buckets in one flat array, rebuilt at the start of
+   * every frame, and small buckets for the organisms added or moved during the frame.
+   */
+  FLAT_BUCKETS,
+  /**
+   * {@link LooseOrganismGrid}: a multi-level grid storing every organism in a single cell.
+   */
+  LOOSE_GRID,
+  ;
+
+  /**
+   * Creates an empty index of this type for a world of the given size.
+   */
+  public OrganismIndex create(int mapWidth, int mapHeight, int bucketSize) {
+    switch (this) {
+    case FLAT_BUCKETS:
+      return new FlatOrganismBuckets(mapWidth, mapHeight, bucketSize);
+    case LOOSE_GRID:
+      return new LooseOrganismGrid(mapWidth, mapHeight, bucketSize);
+    default:
+      return new OrganismBuckets(mapWidth, mapHeight, bucketSize);
+    }
+  }
+}
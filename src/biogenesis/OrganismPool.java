@@ -0,0 +1,163 @@
+package biogenesis;
+
+import java.awt.Color;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the segment arrays of organisms that are gone, so that organisms created later with the
+ * same number of segments can use them instead of allocating new ones. Organisms are born and
+ * decompose all the time, so this takes most of the short lived arrays off the garbage
+ * collector.
+ *
+ * Arrays of organisms removed from the world can still be read for a while, e.g. by the thread
+ * that paints the last snapshot of the world, so they are only given to new organisms after the
+ * end of the next frame. The organisms themselves are not reused, because other objects keep
+ * references to them after they are gone.
+ */
+public class OrganismPool {
+  /**
+   * The most sets of arrays kept for every number of segments.
+   */
+  private static final int MAX_FREE = 64;
+
+  private final Map<Integer, ArrayDeque<SegmentArrays>> free = new HashMap<>();
+  /**
+   * Arrays released in the current frame, and in the previous one.
+   */
+  private List<SegmentArrays> released = new ArrayList<>();
+  private List<SegmentArrays> cooling = new ArrayList<>();
+  private long allocated, reused;
+
+  /**
+   * Returns cleared arrays for an organism with the given number of segments.
+   */
+  public synchronized SegmentArrays take(int segments) {
+    if (Utils.POOL_SEGMENT_ARRAYS) {
+      ArrayDeque<SegmentArrays> sameSize = free.get(segments);
+      if (sameSize != null && !sameSize.isEmpty()) {
+        reused++;
+        SegmentArrays arrays = sameSize.pop();
+        arrays.clear();
+        return arrays;
+      }
+    }
+    allocated++;
+    return new SegmentArrays(segments);
+  }
+
+  /**
+   * Gives back the arrays of an organism removed from the world. They will be reused after the
+   * end of the next frame.
+   */
+  public synchronized void release(SegmentArrays arrays) {
+    if (Utils.POOL_SEGMENT_ARRAYS) {
+      released.add(arrays);
+    }
+  }
+
+  /**
+   * Gives back the arrays of an organism that was never seen by other threads, like a child
+   * that couldn't be placed in the world. They can be reused right away.
+   */
+  public synchronized void releaseUnused(SegmentArrays arrays) {
+    if (Utils.POOL_SEGMENT_ARRAYS) {
+      addFree(arrays);
+    }
+  }
+
+  /**
+   * Called by the world at the end of every frame. Makes the arrays released in the previous
+   * frame available.
+   */
+  public synchronized void endFrame() {
+    for (SegmentArrays arrays : cooling) {
+      addFree(arrays);
+    }
+    cooling.clear();
+    List<SegmentArrays> swap = cooling;
+    cooling = released;
+    released = swap;
+  }
+
+  private void addFree(SegmentArrays arrays) {
+    ArrayDeque<SegmentArrays> sameSize = free.computeIfAbsent(arrays.size, s -> new ArrayDeque<>());
+    if (sameSize.size() < MAX_FREE) {
+      sameSize.push(arrays);
+    }
+  }
+
+  /**
+   * Returns the number of sets of arrays that had to be allocated.
+   */
+  public synchronized long getAllocated() {
+    return allocated;
+  }
+
+  /**
+   * Returns the number of sets of arrays that were taken from the pool.
+   */
+  public synchronized long getReused() {
+    return reused;
+  }
+
+  /**
+   * The arrays of an organism that have one element per segment.
+   */
+  public static class SegmentArrays {
+    final int size;
+    final Color[] colors;
+    final byte[] types;
+    final int[] startPointX, startPointY, endPointX, endPointY;
+    final double[] m, mphoto;
+    final int[] x1, y1, x2, y2;
+    final int[] segMinX, segMinY, segMaxX, segMaxY;
+
+    SegmentArrays(int size) {
+      this.size = size;
+      colors = new Color[size];
+      types = new byte[size];
+      startPointX = new int[size];
+      startPointY = new int[size];
+      endPointX = new int[size];
+      endPointY = new int[size];
+      m = new double[size];
+      mphoto = new double[size];
+      x1 = new int[size];
+      y1 = new int[size];
+      x2 = new int[size];
+      y2 = new int[size];
+      segMinX = new int[size];
+      segMinY = new int[size];
+      segMaxX = new int[size];
+      segMaxY = new int[size];
+    }
+
+    /**
+     * Sets all elements back to the values of new arrays. The segment boxes are always
+     * calculated before they are read, so they are left as they are.
+     */
+    void clear() {
+      Arrays.fill(colors, null);
+      Arrays.fill(types, (byte) 0);
+      Arrays.fill(startPointX, 0);
+      Arrays.fill(startPointY, 0);
+      Arrays.fill(endPointX, 0);
+      Arrays.fill(endPointY, 0);
+      Arrays.fill(m, 0);
+      Arrays.fill(mphoto, 0);
+      Arrays.fill(x1, 0);
+      Arrays.fill(y1, 0);
+      Arrays.fill(x2, 0);
+      Arrays.fill(y2, 0);
+    }
+
+    public int getSize() {
+      return size;
+    }
+  }
+}
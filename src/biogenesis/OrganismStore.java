@@ -0,0 +1,290 @@
+package biogenesis;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * All organisms of a world, dead or alive, in a dense array.
+ *
+ * Every organism knows its position in the array, so it can be removed by moving the last
+ * organism into its place, without hashing. Organisms can also be found by their
+ * identification number.
+ *
+ * Like a synchronized collection, all methods lock the store, and code that iterates over it
+ * must hold the lock too. Readers that don't need the latest changes, like rendering and
+ * statistics, can use {@link #snapshot()} instead, which never waits for the simulation.
+ *
+ * The center and bounds of every organism are also kept in a {@link KinematicStore}, at the
+ * same index. Organisms removed during a frame stay in place until the end of the frame, so
+ * the indexes don't change while organisms are progressed.
+ */
+public class OrganismStore extends AbstractCollection<Organism> implements Serializable {
+  private static final long serialVersionUID = Utils.FILE_VERSION;
+
+  private transient Organism[] organisms = new Organism[1024];
+  private transient int size;
+  private transient Map<Integer, Organism> byId = new HashMap<>();
+  private transient KinematicStore kinematics = new KinematicStore();
+  /**
+   * Organisms removed during the current frame, in the order they were removed.
+   */
+  private transient List<Organism> removed = new ArrayList<>();
+  /**
+   * The organisms at the start or the end of the last frame, or after the last change if the
+   * world is not running a frame.
+   */
+  private transient volatile Organism[] snapshot = new Organism[0];
+  /**
+   * True if the store changed since the snapshot was taken.
+   */
+  private transient volatile boolean stale;
+  private transient volatile boolean frameRunning;
+
+  public OrganismStore() {
+    kinematics.ensureCapacity(organisms.length);
+  }
+
+  /**
+   * Creates a store with the given organisms, e.g. the ones in a world read from an old file.
+   */
+  public OrganismStore(Collection<Organism> organisms) {
+    this();
+    synchronized (organisms) {
+      for (Organism o : organisms) {
+        add(o);
+      }
+    }
+  }
+
+  @Override
+  public synchronized boolean add(Organism o) {
+    if (contains(o)) {
+      return false;
+    }
+    if (size == organisms.length) {
+      organisms = Arrays.copyOf(organisms, size * 2);
+      kinematics.ensureCapacity(organisms.length);
+    }
+    o._storeIndex = size;
+    kinematics.record(size, o);
+    organisms[size++] = o;
+    byId.put(o._ID, o);
+    stale = true;
+    return true;
+  }
+
+  /**
+   * Removes an organism. During a frame it is only removed at the end of the frame.
+   */
+  @Override
+  public synchronized boolean remove(Object object) {
+    if (!contains(object)) {
+      return false;
+    }
+    if (frameRunning) {
+      removed.add((Organism) object);
+    } else {
+      removeNow((Organism) object);
+    }
+    return true;
+  }
+
+  private void removeNow(Organism o) {
+    int index = o._storeIndex;
+    if (index < 0 || index >= size || organisms[index] != o) {
+      return;
+    }
+    Organism last = organisms[--size];
+    organisms[index] = last;
+    last._storeIndex = index;
+    kinematics.move(size, index);
+    organisms[size] = null;
+    o._storeIndex = -1;
+    byId.remove(o._ID, o);
+    stale = true;
+  }
+
+  @Override
+  public synchronized boolean contains(Object object) {
+    if (!(object instanceof Organism)) {
+      return false;
+    }
+    int index = ((Organism) object)._storeIndex;
+    return index >= 0 && index < size && organisms[index] == object;
+  }
+
+  @Override
+  public synchronized void clear() {
+    for (int i = 0; i < size; i++) {
+      organisms[i]._storeIndex = -1;
+      organisms[i] = null;
+    }
+    size = 0;
+    byId.clear();
+    removed.clear();
+    stale = true;
+  }
+
+  @Override
+  public synchronized int size() {
+    return size;
+  }
+
+  /**
+   * Returns the organism at the given position. Positions change when organisms are removed.
+   */
+  public synchronized Organism get(int index) {
+    if (index >= size) {
+      throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+    }
+    return organisms[index];
+  }
+
+  /**
+   * Returns the organism with the given identification number, or null if there is none.
+   */
+  public synchronized Organism getById(int id) {
+    return byId.get(id);
+  }
+
+  /**
+   * Reorders the organisms along a Z-order curve of their centers, see
+   * {@link KinematicStore#mortonOrder}, so that organisms that are close in the world are also
+   * close in the store and are progressed one after the other. Must not be called during a
+   * frame.
+   *
+   * @param cellSize the side of the squares whose organisms keep their order, in pixels
+   */
+  public synchronized void sortByPosition(int cellSize) {
+    int[] order = kinematics.mortonOrder(size, cellSize);
+    Organism[] sorted = new Organism[organisms.length];
+    for (int i = 0; i < size; i++) {
+      sorted[i] = organisms[order[i]];
+      sorted[i]._storeIndex = i;
+    }
+    organisms = sorted;
+    kinematics.permute(order, size);
+    stale = true;
+  }
+
+  /**
+   * Records the current center and bounds of an organism in the kinematic store. Called when
+   * the organism has moved, by the thread that moved it.
+   */
+  public void record(Organism o) {
+    int index = o._storeIndex;
+    if (index >= 0 && index < size && organisms[index] == o) {
+      kinematics.record(index, o);
+    }
+  }
+
+  /**
+   * Returns the center and bounds of the organisms, at the same indexes as {@link #get(int)}.
+   * The caller must hold the lock of the store, or be the thread that runs the frame.
+   */
+  public KinematicStore getKinematics() {
+    return kinematics;
+  }
+
+  /**
+   * Iterates over the organisms in the store. The caller must hold the lock of the store.
+   */
+  @Override
+  public Iterator<Organism> iterator() {
+    return new Iterator<Organism>() {
+      private int next;
+
+      @Override
+      public boolean hasNext() {
+        return next < size;
+      }
+
+      @Override
+      public Organism next() {
+        if (next >= size) {
+          throw new NoSuchElementException();
+        }
+        return organisms[next++];
+      }
+    };
+  }
+
+  /**
+   * Returns the organisms as they were at the start or at the end of the current or last frame,
+   * or after the last change if the world is not running a frame. The array must not be
+   * modified.
+   */
+  public Organism[] snapshot() {
+    if (stale && !frameRunning) {
+      synchronized (this) {
+        if (stale) {
+          takeSnapshot();
+        }
+      }
+    }
+    return snapshot;
+  }
+
+  /**
+   * Called by the world when it starts a frame. Until {@link #endFrame()}, snapshots are the
+   * organisms at the start of the frame.
+   */
+  public synchronized void startFrame() {
+    if (stale) {
+      takeSnapshot();
+    }
+    frameRunning = true;
+  }
+
+  /**
+   * Called by the world when it ends a frame. Removes the organisms removed during the frame.
+   */
+  public synchronized void endFrame() {
+    for (Organism o : removed) {
+      removeNow(o);
+    }
+    removed.clear();
+    if (stale) {
+      takeSnapshot();
+    }
+    frameRunning = false;
+  }
+
+  private void takeSnapshot() {
+    snapshot = Arrays.copyOf(organisms, size);
+    stale = false;
+  }
+
+  private synchronized void writeObject(ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    out.writeInt(size);
+    for (int i = 0; i < size; i++) {
+      out.writeObject(organisms[i]);
+    }
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    int count = in.readInt();
+    organisms = new Organism[Math.max(1024, count)];
+    byId = new HashMap<>();
+    kinematics = new KinematicStore();
+    kinematics.ensureCapacity(organisms.length);
+    removed = new ArrayList<>();
+    snapshot = new Organism[0];
+    for (int i = 0; i < count; i++) {
+      add((Organism) in.readObject());
+    }
+  }
+}
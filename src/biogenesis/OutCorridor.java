@@ -33,21 +33,26 @@ public class OutCorridor extends Corridor {
 		connection = c;
 	}
 
-	public boolean sendOrganism(Organism org) {
+	/**
+	 * Sends an organism to the connected host, if the corridor is free.
+	 * The organism leaves the world right away, but it is only sent over
+	 * the network when the frame is committed, see {@link WorldEventBus}.
+	 *
+	 * @param org  The organism to send.
+	 * @return  true if the organism has left the world.
+	 */
+	public synchronized boolean sendOrganism(Organism org) {
 		if (travellingOrganism == null && connection.state == Connection.STATE_CONNECTED) {
-			boolean usernametocladeID = true;
-		    for(char c : org._geneticCode._cladeID.toCharArray()) {
-		        if( c == ':') {
-		        	usernametocladeID = false;
-		        }
-		    }
-		    if (usernametocladeID) {
-		    	org._geneticCode._cladeID = Utils.USER_NAME + ":" + org._geneticCode._cladeID;
-		    }
-			connection.send(org.getGeneticCode());
+			String cladeID = org._geneticCode.getcladeID();
+			if (cladeID.indexOf(':') == -1) {
+				org._geneticCode.setcladeID(Utils.USER_NAME + ":" + cladeID);
+			}
+			GeneticCode geneticCode = org.getGeneticCode();
+			world.getEventBus().postAction(() -> connection.send(geneticCode));
 			travellingOrganism = org;
 			org.useBreathing(org.getEnergy());
 			org.alive = false;
+			world.organismHasLeft(org);
 			world.decreasePopulation();
 			return true;
 		}
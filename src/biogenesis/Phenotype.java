@@ -0,0 +1,130 @@
+package biogenesis;
+
+/**
+ * The segment reactions of the organisms with a given genetic code, in the
+ * same layout used by {@link Organism}: one entry per segment. They are
+ * computed once per genetic code and the arrays are shared by all the
+ * organisms carrying it, so they must never be modified. Organisms copy
+ * them before changing the reactions of a segment.
+ */
+final class Phenotype {
+  final int[] redReaction;
+  final int[] greenReaction;
+  final int[] blueReaction;
+  final int[] plagueReaction;
+  final int[] scourgeReaction;
+  final int[] whiteReaction;
+  final int[] grayReaction;
+  final int[] defaultReaction;
+  final int[] consumerReaction;
+  final int[] plantReaction;
+  final int[] magentaReaction;
+  final int[] pinkReaction;
+  final int[] coralReaction;
+  final int[] orangeReaction;
+  final int[] barkReaction;
+  final int[] violetReaction;
+  final int[] virusReaction;
+  final int[] maroonReaction;
+  final int[] crimsonReaction;
+  final int[] oliveReaction;
+  final int[] mintReaction;
+  final int[] creamReaction;
+  final int[] spikeReaction;
+  final int[] fallowReaction;
+  final int[] lightblueReaction;
+  final int[] ochreReaction;
+  final int[] skyReaction;
+  final int[] lilacReaction;
+  final int[] silverReaction;
+  final int[] fireReaction;
+  final int[] lightbrownReaction;
+  final int[] greenbrownReaction;
+  final int[] brownReaction;
+  final int[] iceReaction;
+  final int[] brokenReaction;
+  final int[] sickReaction;
+  final int[] friendReaction;
+
+  Phenotype(GeneticCode geneticCode) {
+    int nGenes = geneticCode.getNGenes();
+    int segments = nGenes * geneticCode.getSymmetry();
+    redReaction = new int[segments];
+    greenReaction = new int[segments];
+    blueReaction = new int[segments];
+    plagueReaction = new int[segments];
+    scourgeReaction = new int[segments];
+    whiteReaction = new int[segments];
+    grayReaction = new int[segments];
+    defaultReaction = new int[segments];
+    consumerReaction = new int[segments];
+    plantReaction = new int[segments];
+    magentaReaction = new int[segments];
+    pinkReaction = new int[segments];
+    coralReaction = new int[segments];
+    orangeReaction = new int[segments];
+    barkReaction = new int[segments];
+    violetReaction = new int[segments];
+    virusReaction = new int[segments];
+    maroonReaction = new int[segments];
+    crimsonReaction = new int[segments];
+    oliveReaction = new int[segments];
+    mintReaction = new int[segments];
+    creamReaction = new int[segments];
+    spikeReaction = new int[segments];
+    fallowReaction = new int[segments];
+    lightblueReaction = new int[segments];
+    ochreReaction = new int[segments];
+    skyReaction = new int[segments];
+    lilacReaction = new int[segments];
+    silverReaction = new int[segments];
+    fireReaction = new int[segments];
+    lightbrownReaction = new int[segments];
+    greenbrownReaction = new int[segments];
+    brownReaction = new int[segments];
+    iceReaction = new int[segments];
+    brokenReaction = new int[segments];
+    sickReaction = new int[segments];
+    friendReaction = new int[segments];
+    for (int i = 0; i < segments; i++) {
+      Gene gene = geneticCode.getGene(i % nGenes);
+      redReaction[i] = gene.getredReaction();
+      greenReaction[i] = gene.getgreenReaction();
+      blueReaction[i] = gene.getblueReaction();
+      plagueReaction[i] = gene.getplagueReaction();
+      scourgeReaction[i] = gene.getscourgeReaction();
+      whiteReaction[i] = gene.getwhiteReaction();
+      grayReaction[i] = gene.getgrayReaction();
+      defaultReaction[i] = gene.getdefaultReaction();
+      consumerReaction[i] = gene.getconsumerReaction();
+      plantReaction[i] = gene.getplantReaction();
+      magentaReaction[i] = gene.getmagentaReaction();
+      pinkReaction[i] = gene.getpinkReaction();
+      coralReaction[i] = gene.getcoralReaction();
+      orangeReaction[i] = gene.getorangeReaction();
+      barkReaction[i] = gene.getbarkReaction();
+      violetReaction[i] = gene.getvioletReaction();
+      virusReaction[i] = gene.getvirusReaction();
+      maroonReaction[i] = gene.getmaroonReaction();
+      // Crimson reactions have never been taken from the genes, so they stay 0
+      oliveReaction[i] = gene.getoliveReaction();
+      mintReaction[i] = gene.getmintReaction();
+      creamReaction[i] = gene.getcreamReaction();
+      spikeReaction[i] = gene.getspikeReaction();
+      fallowReaction[i] = gene.getfallowReaction();
+      lightblueReaction[i] = gene.getlightblueReaction();
+      ochreReaction[i] = gene.getochreReaction();
+      skyReaction[i] = gene.getskyReaction();
+      lilacReaction[i] = gene.getlilacReaction();
+      silverReaction[i] = gene.getsilverReaction();
+      fireReaction[i] = gene.getfireReaction();
+      lightbrownReaction[i] = gene.getlightbrownReaction();
+      greenbrownReaction[i] = gene.getgreenbrownReaction();
+      brownReaction[i] = gene.getbrownReaction();
+      iceReaction[i] = gene.geticeReaction();
+      brokenReaction[i] = gene.getbrokenReaction();
+      sickReaction[i] = gene.getsickReaction();
+      friendReaction[i] = gene.getfriendReaction();
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package biogenesis;
+
+/**
+ * A source of random numbers, with the methods of {@link java.util.Random} that the simulation
+ * uses. Unlike {@link java.util.Random}, implementations don't need to be safe to share between
+ * threads: {@link Utils#random} gives every thread its own generator.
+ */
+public interface RandomSource {
+  /**
+   * Restarts the numbers from the given seed.
+   */
+  void setSeed(long seed);
+
+  int nextInt();
+
+  /**
+   * Returns a number between 0 (inclusive) and bound (exclusive).
+   *
+   * @throws IllegalArgumentException if bound is not positive
+   */
+  int nextInt(int bound);
+
+  long nextLong();
+
+  /**
+   * Returns a number between 0 (inclusive) and 1 (exclusive).
+   */
+  double nextDouble();
+
+  boolean nextBoolean();
+}
@@ -0,0 +1,64 @@
+package biogenesis;
+
+import java.awt.geom.Line2D;
+import java.awt.geom.Point2D;
+
+/**
+ * Segment intersection functions working on plain coordinates, used by
+ * {@link Organism#contact(Organism)} so that it doesn't need to allocate an
+ * {@link ExLine2DDouble} for every segment and a {@link Point2D} for every intersection.
+ *
+ * The results are exactly the same as the ones of {@link ExLine2DDouble}, including
+ * its handling of parallel segments.
+ */
+public final class Segments {
+  private Segments() {
+  }
+
+  /**
+   * Returns true if segment a intersects segment b, just like
+   * {@code a.intersectsLine(b)}.
+   */
+  public static boolean intersect(double ax1, double ay1, double ax2, double ay2,
+                                  double bx1, double by1, double bx2, double by2) {
+    return Line2D.linesIntersect(bx1, by1, bx2, by2, ax1, ay1, ax2, ay2);
+  }
+
+  /**
+   * Returns the x coordinate of {@code a.getIntersection(b)}.
+   */
+  public static double intersectionX(double ax1, double ay1, double ax2, double ay2,
+                                     double bx1, double by1, double bx2, double by2) {
+    double d = (bx1 - bx2) * (ay2 - ay1) + (ax2 - ax1) * (by2 - by1);
+    if (d < Utils.tol) {
+      // Parallel or the same straight line
+      return (ax1 + ax2 + bx1 + bx2) / 4d;
+    }
+    double t = ((bx1 - ax1) * (ay2 - ay1) + (ax2 - ax1) * (ay1 - by1)) / d;
+    return bx1 + t * (bx2 - bx1);
+  }
+
+  /**
+   * Returns the y coordinate of {@code a.getIntersection(b)}.
+   */
+  public static double intersectionY(double ax1, double ay1, double ax2, double ay2,
+                                     double bx1, double by1, double bx2, double by2) {
+    double d = (bx1 - bx2) * (ay2 - ay1) + (ax2 - ax1) * (by2 - by1);
+    if (d < Utils.tol) {
+      // Parallel or the same straight line
+      return (ay1 + ay2 + by1 + by2) / 4d;
+    }
+    double t = ((bx1 - ax1) * (ay2 - ay1) + (ax2 - ax1) * (ay1 - by1)) / d;
+    return by1 + t * (by2 - by1);
+  }
+
+  /**
+   * Returns the squared distance from the point (px, py) to the nearest end of the segment.
+   * {@link Organism#contact(Organism)} compares it for both touching segments to guess which
+   * one is hit in the middle rather than at a vertex.
+   */
+  public static double nearestVertexDistanceSq(double px, double py,
+                                               double x1, double y1, double x2, double y2) {
+    return Math.min(Point2D.distanceSq(px, py, x1, y1), Point2D.distanceSq(px, py, x2, y2));
+  }
+}
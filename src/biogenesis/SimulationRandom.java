@@ -0,0 +1,99 @@
+package biogenesis;
+
+/**
+ * The random generator behind {@link Utils#random}.
+ *
+ * Every thread gets its own {@link SplitMixRandom}, so threads progressing organisms at the same
+ * time don't compete for a shared seed. The thread that sets the seed restarts its own generator
+ * from it; the generators of the other threads are then seeded, on their next use, from a
+ * sequence that starts at the same seed. So a world progressed by a single thread, whichever
+ * it is, always gets the same numbers from the same seed.
+ *
+ * While a thread is progressing a tile of a deterministic frame, the numbers come from the
+ * stream of that {@link FrameTile} instead, so they don't depend on which thread runs the tile
+ * or when.
+ */
+public class SimulationRandom implements RandomSource {
+  private final ThreadLocal<ThreadStream> streams = new ThreadLocal<ThreadStream>() {
+    @Override
+    protected ThreadStream initialValue() {
+      return new ThreadStream();
+    }
+  };
+  /**
+   * The seeds of the thread generators.
+   */
+  private final SplitMixRandom seeds = new SplitMixRandom(0);
+  /**
+   * Incremented by every {@link #setSeed}, so that threads know their generator is stale.
+   */
+  private volatile int generation;
+
+  public SimulationRandom() {
+    this(SplitMixRandom.mix(System.nanoTime()) ^ System.currentTimeMillis());
+  }
+
+  public SimulationRandom(long seed) {
+    setSeed(seed);
+  }
+
+  @Override
+  public void setSeed(long seed) {
+    int newGeneration;
+    synchronized (seeds) {
+      seeds.setSeed(SplitMixRandom.mix(seed));
+      newGeneration = ++generation;
+    }
+    ThreadStream stream = streams.get();
+    stream.random.setSeed(seed);
+    stream.generation = newGeneration;
+  }
+
+  @Override
+  public int nextInt() {
+    return current().nextInt();
+  }
+
+  @Override
+  public int nextInt(int bound) {
+    return current().nextInt(bound);
+  }
+
+  @Override
+  public long nextLong() {
+    return current().nextLong();
+  }
+
+  @Override
+  public double nextDouble() {
+    return current().nextDouble();
+  }
+
+  @Override
+  public boolean nextBoolean() {
+    return current().nextBoolean();
+  }
+
+  private RandomSource current() {
+    FrameTile tile = FrameTile.current();
+    if (tile != null) {
+      return tile.random;
+    }
+    ThreadStream stream = streams.get();
+    if (stream.generation != generation) {
+      synchronized (seeds) {
+        stream.random.setSeed(seeds.nextLong());
+        stream.generation = generation;
+      }
+    }
+    return stream.random;
+  }
+
+  /**
+   * The generator of a thread, and the seed generation it was seeded in.
+   */
+  private static class ThreadStream {
+    final SplitMixRandom random = new SplitMixRandom(0);
+    int generation;
+  }
+}
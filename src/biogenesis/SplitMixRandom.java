@@ -0,0 +1,67 @@
+package biogenesis;
+
+/**
+ * A SplitMix64 generator, the algorithm of {@link java.util.SplittableRandom}, but seedable
+ * and usable as a {@link RandomSource}. Every number costs an addition and a mix of the
+ * state, with no atomic operation, so an instance must be used by a single thread.
+ */
+public final class SplitMixRandom implements RandomSource {
+  private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+  private long seed;
+
+  public SplitMixRandom(long seed) {
+    this.seed = seed;
+  }
+
+  @Override
+  public void setSeed(long seed) {
+    this.seed = seed;
+  }
+
+  @Override
+  public long nextLong() {
+    return mix(seed += GOLDEN_GAMMA);
+  }
+
+  @Override
+  public int nextInt() {
+    return (int) (nextLong() >>> 32);
+  }
+
+  @Override
+  public int nextInt(int bound) {
+    if (bound <= 0) {
+      throw new IllegalArgumentException("bound must be positive");
+    }
+    int r = nextInt();
+    int m = bound - 1;
+    if ((bound & m) == 0) {
+      return r & m;
+    }
+    // Reject the values of the last, incomplete, multiple of bound so that all results are
+    // equally likely
+    for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = nextInt() >>> 1);
+    return r;
+  }
+
+  @Override
+  public double nextDouble() {
+    return (nextLong() >>> 11) * 0x1.0p-53;
+  }
+
+  @Override
+  public boolean nextBoolean() {
+    return nextLong() < 0;
+  }
+
+  /**
+   * The finalizer of SplitMix64. It also turns related seeds, like consecutive numbers,
+   * into unrelated ones.
+   */
+  public static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
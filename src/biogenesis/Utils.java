@@ -22,13 +22,14 @@ package biogenesis;
 import java.awt.Color;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 import java.util.prefs.BackingStoreException;
 import java.util.prefs.Preferences;
 
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
 
+import biogenesis.parallel_executor.ParallelSchedulerType;
+
 
 /**
  * This class contains all global program parameters and a few useful methods for
@@ -803,7 +804,7 @@ public final class Utils {
 	/**
 	 * This is the effective value of organisms that are created when a new world begins.
 	 */
-	static int INITIAL_ORGANISMS = DEF_INITIAL_ORGANISMS;
+	public static int INITIAL_ORGANISMS = DEF_INITIAL_ORGANISMS;
 	/**
 	 * This is the effective complexity of random organisms.
 	 */
@@ -839,11 +840,11 @@ public final class Utils {
 	/**
 	 * This is the effective world's width for new worlds.
 	 */
-	static int WORLD_WIDTH = DEF_WORLD_WIDTH;
+	public static int WORLD_WIDTH = DEF_WORLD_WIDTH;
 	/**
 	 * This is the effective world's height for new worlds.
 	 */
-	static int WORLD_HEIGHT = DEF_WORLD_HEIGHT;
+	public static int WORLD_HEIGHT = DEF_WORLD_HEIGHT;
 	/**
 	 * This is the maximum age that an organism can achieve,
 	 * without counting the number of segments.
@@ -1494,6 +1495,45 @@ public final class Utils {
 	 * but synchronization between threads can slow down the overall speed.
 	 */
 	public static int THREAD_COUNT = DEF_THREAD_COUNT;
+	/**
+	 * The implementation of the spatial index used for collision detection. Not saved with
+	 * the other parameters, it is only here to be able to compare the implementations.
+	 */
+	public static OrganismIndexType ORGANISM_INDEX_TYPE = OrganismIndexType.BUCKETS;
+	/**
+	 * How the work of a frame is split between threads when THREAD_COUNT is more than 1.
+	 * Not saved with the other parameters, it is only here to be able to compare the schedulers.
+	 */
+	public static ParallelSchedulerType PARALLEL_SCHEDULER = ParallelSchedulerType.TILES;
+	/**
+	 * If true, frames are progressed in tiles with their own random streams and world changes
+	 * are applied at the end of the frame in a fixed order (see {@link FrameTile}), so that a
+	 * seeded world gives exactly the same results with any THREAD_COUNT. Gases are taken from
+	 * the levels at the start of the frame, so results differ from the normal mode.
+	 * Only the BUCKETS and FLAT_BUCKETS indexes keep tiles apart: the upper levels of
+	 * LOOSE_GRID are shared by several tiles. Not saved with the other parameters.
+	 */
+	public static boolean DETERMINISTIC = false;
+	/**
+	 * Every how many frames the organisms are sorted by their position in the world, so that
+	 * neighbours are progressed one after the other (see {@link OrganismStore#sortByPosition}).
+	 * 0 never sorts them. Not saved with the other parameters.
+	 */
+	public static int SORT_ORGANISMS_FRAMES = 256;
+	/**
+	 * If true, the segment arrays of organisms that are gone are reused by new organisms
+	 * (see {@link OrganismPool}). Not saved with the other parameters.
+	 */
+	public static boolean POOL_SEGMENT_ARRAYS = true;
+	/**
+	 * If true, lime plants that have been still for a while (see {@link Organism#isAsleep})
+	 * check if they are crowded only once every 16 frames instead of every frame. They are
+	 * woken up when an organism moves into them, is born on them or is removed from on top of
+	 * them, but not when a neighbour moves away, so they can stay crowded for up to 15 frames
+	 * longer than they should. This changes the results of a world. Not saved with the other
+	 * parameters.
+	 */
+	public static boolean SLEEPING_PLANTS = false;
 	/**
 	 * This is the value for having or not having automatic backups.
 	 */
@@ -1890,9 +1930,10 @@ public final class Utils {
 	 */
 	public static final Color ColorDARK = new Color(64,32,16);
 	/**
-	 * Used through all program to calculate random numbers
+	 * Used through all program to calculate random numbers. Every thread, and in
+	 * deterministic frames every tile, gets its own stream, see {@link SimulationRandom}.
 	 */
-	public static Random random = new Random();
+	public static RandomSource random = new SimulationRandom();
 	/**
 	 * Used to get a random -1 or 1 to create numbers with random sign.
 	 *
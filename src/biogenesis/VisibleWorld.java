@@ -318,7 +318,7 @@ public class VisibleWorld extends JPanel implements VisibleWorldInterface {
 			Organism b = getSelectedOrganism();
 			if (b != null && !b.isAlive()) {
 				for (int i = 0; i < b._segments; i++)
-					b._segColor[i] = b.getGeneticCode().getGene(i%b.getGeneticCode().getNGenes()).getColor();
+					b.setSegColor(i, b.getGeneticCode().getGene(i%b.getGeneticCode().getNGenes()).getColor());
 				b.active = true;
 				b.alive = true;
 				b.hasMoved = true;
@@ -360,7 +360,7 @@ public class VisibleWorld extends JPanel implements VisibleWorldInterface {
 				b._isinjured = false;
 				b.symmetric();
 				b.segmentsCreateEffects(true);
-				_mainWindow.getWorld().increasePopulation();
+				_mainWindow.getWorld().organismHasBeenRevived(b);
 				showAliveToolbar();
 			}
 		}
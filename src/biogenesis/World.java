@@ -25,12 +25,11 @@ import java.awt.Rectangle;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import javax.swing.JViewport;
 import javax.swing.SwingUtilities;
@@ -38,6 +37,7 @@ import javax.swing.SwingUtilities;
 import com.google.gson.annotations.Expose;
 
 import biogenesis.parallel_executor.ParallelExecutor;
+import biogenesis.parallel_executor.ThreadStartIndexes;
 /**
  * This class contains all the information needed to run a world:
  * the organisms, the substances and the biological corridors. It
@@ -63,8 +63,10 @@ public class World implements Serializable{
 	protected int _height;
 	/**
 	 * A list of the organisms in the world, even dead ones.
-	 * Note that this must be a synchronized list so it is mandatory to
-	 * manually synchronize when iterating over it.
+	 * This is an {@link OrganismStore}, so it is mandatory to
+	 * manually synchronize when iterating over it. Worlds saved
+	 * by older versions have a synchronized set here, that is
+	 * replaced when they are read.
 	 */
 	@Expose
 	protected Collection<Organism> _organisms;
@@ -86,7 +88,19 @@ public class World implements Serializable{
 	 * Number of living organisms in the world
 	 */
 	protected volatile int _population = 0;
-	private static final Object _population_monitor = new Object();
+	/**
+	 * Delivers births, deaths, infections and population changes to the
+	 * statistics, the info panel and other listeners.
+	 */
+	transient private WorldEventBus events;
+	/**
+	 * The number of alive organisms of every clade.
+	 */
+	transient private CladeRegistry cladeRegistry;
+	/**
+	 * The segment arrays of organisms that are gone, to be used by new ones.
+	 */
+	transient OrganismPool organismPool;
 	/**
 	 * The next identification number that will be assigned to an organism
 	 * in this world
@@ -110,6 +124,12 @@ public class World implements Serializable{
 	 * time and to trigger some window updating at regular intervals.
 	 */
 	private int nFrames;
+	/**
+	 * Number of frames executed since this world was created or loaded. Unlike
+	 * {@link #nFrames} it doesn't wrap around every time unit, so it can be used
+	 * to find out if something already happened in the current frame.
+	 */
+	private transient int frameCount;
 	/**
 	 * The amount of O2 in the atmosphere of this world.
 	 */
@@ -167,8 +187,222 @@ public class World implements Serializable{
 	private void readObject(java.io.ObjectInputStream in)
     throws IOException, ClassNotFoundException {
 		in.defaultReadObject();
+		if (!(_organisms instanceof OrganismStore))
+			_organisms = new OrganismStore(_organisms);
 		inCorridors = Collections.synchronizedList(new ArrayList<InCorridor>());
 		outCorridors = Collections.synchronizedList(new ArrayList<OutCorridor>());
+		rebuildOrganismBuckets();
+		rebuildCladeRegistry();
+		createEventBus();
+		organismPool = new OrganismPool();
+	}
+	/**
+	 * Creates the event bus, with the listeners that keep the population,
+	 * the statistics and the info panel up to date, in this order.
+	 */
+	private void createEventBus() {
+		events = new WorldEventBus();
+		events.addListener(new WorldEventListener() {
+			@Override
+			public void organismAdded(Organism child, Organism parent) {
+				_organisms.add(child);
+				// It may have been killed in the same frame
+				if (child.isAlive())
+					cladeRegistry.register(child);
+			}
+			@Override
+			public void organismDied(Organism dyingOrganism, Organism killingOrganism) {
+				cladeRegistry.unregister(dyingOrganism);
+			}
+			@Override
+			public void organismRevived(Organism organism) {
+				cladeRegistry.register(organism);
+			}
+			@Override
+			public void organismLeft(Organism organism) {
+				cladeRegistry.unregister(organism);
+			}
+			@Override
+			public void organismRemoved(Organism organism) {
+				_organisms.remove(organism);
+				wakeUpNeighbours(organism);
+				// Organisms sent through a corridor are still drawn by it
+				if (!isTravelling(organism))
+					organism.recycle();
+			}
+			@Override
+			public void populationIncreased() {
+				_population++;
+			}
+			@Override
+			public void populationDecreased() {
+				_population--;
+			}
+		});
+		events.addListener(new WorldEventListener() {
+			@Override
+			public void organismAdded(Organism child, Organism parent) {
+				if (parent != null)
+					worldStatistics.eventOrganismBorn(child, parent);
+				worldStatistics.eventOrganismCreated();
+			}
+			@Override
+			public void organismDied(Organism dyingOrganism, Organism killingOrganism) {
+				worldStatistics.eventOrganismDie(dyingOrganism, killingOrganism);
+			}
+			@Override
+			public void organismInfected(Organism infectedOrganism, Organism infectingOrganism) {
+				worldStatistics.eventOrganismInfects(infectedOrganism, infectingOrganism);
+			}
+			@Override
+			public void populationIncreased() {
+				worldStatistics.eventPopulationIncrease(_population);
+			}
+			@Override
+			public void populationDecreased() {
+				worldStatistics.eventPopulationDecrease(_population);
+			}
+		});
+		events.addListener(new WorldEventListener() {
+			@Override
+			public void organismAdded(Organism child, Organism parent) {
+				if (parent == _visibleWorld.getSelectedOrganism() && getInfoPanel() != null)
+					getInfoPanel().changeNChildren();
+			}
+			@Override
+			public void organismDied(Organism dyingOrganism, Organism killingOrganism) {
+				if (killingOrganism == _visibleWorld.getSelectedOrganism() && getInfoPanel() != null)
+					getInfoPanel().changeNKills();
+				if (dyingOrganism == _visibleWorld.getSelectedOrganism())
+					_visibleWorld.showDeadToolbar();
+			}
+			@Override
+			public void organismInfected(Organism infectedOrganism, Organism infectingOrganism) {
+				if (infectingOrganism == _visibleWorld.getSelectedOrganism() && getInfoPanel() != null)
+					getInfoPanel().changeNInfected();
+			}
+		});
+	}
+	/**
+	 * Checks if an organism is being sent to another host through one of the
+	 * output corridors of this world.
+	 *
+	 * @param organism  The organism.
+	 * @return  true if an output corridor is sending it.
+	 */
+	private boolean isTravelling(Organism organism) {
+		if (!_corridorexists)
+			return false;
+		synchronized (outCorridors) {
+			for (OutCorridor c : outCorridors) {
+				if (c.getTravellingOrganism() == organism)
+					return true;
+			}
+		}
+		return false;
+	}
+	/**
+	 * Returns the info panel of the main window, or null if there is none,
+	 * like when the world is run without windows by {@link Benchmark}.
+	 *
+	 * @return  The info panel, or null.
+	 */
+	private InfoToolbar getInfoPanel() {
+		return _visibleWorld.getMainWindow().getInfoPanel();
+	}
+	/**
+	 * Returns the bus that delivers the events of this world, so that
+	 * more listeners can be added to it.
+	 *
+	 * @return  The event bus.
+	 */
+	public WorldEventBus getEventBus() {
+		return events;
+	}
+	/**
+	 * Creates a new clade registry with all alive organisms. Used when the
+	 * world is created or loaded, after that the registry is kept up to date
+	 * by the events of the world.
+	 */
+	private void rebuildCladeRegistry() {
+		CladeRegistry registry = new CladeRegistry();
+		synchronized (_organisms) {
+			for (Organism o: _organisms) {
+				o._cladeEntry = null;
+				if (o.isAlive())
+					registry.register(o);
+			}
+		}
+		cladeRegistry = registry;
+	}
+	/**
+	 * Returns the number of alive organisms of every clade, and their
+	 * recent history.
+	 *
+	 * @return  The clade registry.
+	 */
+	public CladeRegistry getCladeRegistry() {
+		return cladeRegistry;
+	}
+	/**
+	 * Creates a new spatial index with the current world size, and inserts all organisms
+	 * into it. Used when the world is created or loaded, after that the index is kept up
+	 * to date incrementally.
+	 */
+	private void rebuildOrganismBuckets() {
+		OrganismIndex buckets = Utils.ORGANISM_INDEX_TYPE.create(_width, _height, chooseBucketSize());
+		synchronized (_organisms) {
+			for (Organism o: _organisms) {
+				buckets.insert(o);
+			}
+		}
+		organismBuckets = buckets;
+	}
+
+	/**
+	 * Chooses the bucket size of the spatial index from the size of the organisms currently
+	 * living in the world: twice the median of their bounding box sizes, so that a typical
+	 * organism touches only a few buckets while buckets don't hold too many organisms.
+	 * It is never smaller than {@link ThreadStartIndexes#minBucketSize} of the 99th percentile
+	 * of the sizes, so that the parallel schedulers keep threads apart around almost all
+	 * organisms. The few bigger ones are moved apart from the parallel phase by the
+	 * ParallelExecutor, instead of making the buckets so big that there are too few of them
+	 * to run in parallel. This doesn't depend on the number of threads, so deterministic
+	 * frames still give the same results with any.
+	 * 
+	 * @return  The bucket size in pixels, or {@link #DEFAULT_BUCKET_SIZE} if the world is empty.
+	 */
+	private int chooseBucketSize() {
+		int[] sizes;
+		int n = 0;
+
+		OrganismStore store = organismStore();
+		synchronized (store) {
+			KinematicStore k = store.getKinematics();
+			sizes = new int[store.size()];
+			for (int i = 0; i < sizes.length; i++) {
+				int w = k.getMaxX(i) - k.getMinX(i);
+				int h = k.getMaxY(i) - k.getMinY(i);
+				if (w > 0 || h > 0)
+					sizes[n++] = Math.max(w, h);
+			}
+		}
+		if (n == 0)
+			return DEFAULT_BUCKET_SIZE;
+		Arrays.sort(sizes, 0, n);
+		return Math.max(Utils.between(2 * sizes[n / 2], MIN_BUCKET_SIZE, MAX_BUCKET_SIZE),
+				ThreadStartIndexes.minBucketSize(sizes[(n - 1) * 99 / 100]));
+	}
+
+	/**
+	 * Rebuilds the spatial index if the organisms changed size so much since it was built
+	 * that a different bucket size fits them better.
+	 */
+	private void adaptOrganismBuckets() {
+		int current = organismBuckets.getBucketSize();
+		int best = chooseBucketSize();
+		if (Math.abs(best - current) * 4 > current)
+			rebuildOrganismBuckets();
 	}
 	/**
 	 * Finds an organism that has the given coordinates inside its bounding box and
@@ -182,20 +416,43 @@ public class World implements Serializable{
 	 * if such organism doesn't exist.
 	 */
 	public Organism findOrganismFromPosition(int x, int y) {
-		Organism b;
 		Organism deadOrganism = null;
-		synchronized(_organisms) {
-			for (Iterator<Organism> it = _organisms.iterator(); it.hasNext(); ) {
-				b = it.next();
-				if (b.contains(x,y)) {
-					if (b.isAlive())
-						return b;
-					deadOrganism = b;
-				}
+		for (Organism b : organismStore().snapshot()) {
+			if (b.contains(x,y)) {
+				if (b.isAlive())
+					return b;
+				deadOrganism = b;
 			}
 		}
 		return deadOrganism;
 	}
+	/**
+	 * Finds the organism with the given identification number.
+	 *
+	 * @param id  The identification number.
+	 * @return  The organism, dead or alive, or null if it is not in this world.
+	 */
+	public Organism getOrganismById(int id) {
+		return organismStore().getById(id);
+	}
+	/**
+	 * Returns the organisms of the world as they were at the start or the end
+	 * of the last frame, without waiting for the current one. Used to draw the
+	 * world and to make statistics.
+	 *
+	 * @return  The organisms, dead or alive. The array must not be modified.
+	 */
+	public Organism[] getOrganismsSnapshot() {
+		return organismStore().snapshot();
+	}
+	/**
+	 * Returns the organisms of the world.
+	 *
+	 * @return  The organisms, as an {@link OrganismStore}.
+	 */
+	OrganismStore organismStore() {
+		return (OrganismStore) _organisms;
+	}
 	/**
 	 * Returns the world's width.
 	 *
@@ -218,6 +475,9 @@ public class World implements Serializable{
 	 * @return  A unique number used to identify an organism.
 	 */
 	public int getNewId() {
+		FrameTile tile = FrameTile.current();
+		if (tile != null)
+			return tile.nextId(NEXT_ID);
 		synchronized (NEXT_ID_monitor) {
 			return NEXT_ID++;
 		}
@@ -228,6 +488,9 @@ public class World implements Serializable{
 	 * @return  A unique number used to identify part of the clade string
 	 */
 	public int getNewCladePart() {
+		FrameTile tile = FrameTile.current();
+		if (tile != null)
+			return tile.nextCladePart(NEXT_CLADE_PART);
 		synchronized (NEXT_CLADE_PART_monitor) {
 			return NEXT_CLADE_PART++;
 		}
@@ -248,6 +511,14 @@ public class World implements Serializable{
 	public long getFrame() {
 		return nFrames;
 	}
+	/**
+	 * Returns the number of frames executed since this world was created or loaded.
+	 *
+	 * @return  The number of the current frame.
+	 */
+	public int getFrameCount() {
+		return frameCount;
+	}
 	/**
 	 * Returns the number of corpses that still have energy and drawn in the
 	 * world.
@@ -276,16 +547,7 @@ public class World implements Serializable{
 	 * @param minPopulation only count clades with at least minPopulation organisms
 	 */
 	public int getDistinctCladeIDCount(int minPopulation) {
-		synchronized (_organisms) {
-		return (int) _organisms
-				.stream()
-				.filter(o -> o.isAlive())
-				.collect(Collectors.groupingBy(o -> o.getGeneticCode().getcladeID(), Collectors.counting()))
-				.entrySet()
-				.stream()
-				.filter(e -> e.getValue() >= minPopulation) // only show clades with at least minPopulation organisms
-				.count();
-		}
+		return cladeRegistry.getDistinctCladeCount(minPopulation);
 	}
 	/**
 	 * Increase the population counter by one.
@@ -295,10 +557,9 @@ public class World implements Serializable{
 	 * cases it may be used directly.
 	 */
 	public void increasePopulation() {
-		synchronized (_population_monitor) {
-			_population++;
-			worldStatistics.eventPopulationIncrease(_population);
-		}
+		if (FrameTile.delay(this::increasePopulation))
+			return;
+		events.populationIncreased();
 	}
 	/**
 	 * Decrease the population counter by one.
@@ -308,10 +569,9 @@ public class World implements Serializable{
 	 * but in some cases it may be used directly.
 	 */
 	public void decreasePopulation() {
-		synchronized (_population_monitor) {
-			_population--;
-			worldStatistics.eventPopulationDecrease(_population);
-		}
+		if (FrameTile.delay(this::decreasePopulation))
+			return;
+		events.populationDecreased();
 	}
 	/**
 	 * Returns the amount of O2 that exist in the atmosphere.
@@ -433,6 +693,45 @@ public class World implements Serializable{
 			_detritus -= Math.min(q, _detritus);
 		}
 	}
+	/**
+	 * Takes up to the given amount of a gas from the atmosphere, to be held
+	 * in a {@link GasLedger} until the end of the frame.
+	 *
+	 * @param gas  The index of the gas in the ledgers.
+	 * @param q  The amount of gas wanted.
+	 * @return  The amount of gas taken. This is always <code>q</code>
+	 * unless there weren't enough gas in the atmosphere.
+	 */
+	double withdraw(int gas, double q) {
+		switch (gas) {
+		case GasLedger.CO2:
+			synchronized (_CO2_monitor) {
+				q = Math.min(q,_CO2);
+				_CO2 -= q;
+			}
+			return q;
+		case GasLedger.CH4:
+			synchronized (_CH4_monitor) {
+				q = Math.min(q,_CH4);
+				_CH4 -= q;
+			}
+			return q;
+		case GasLedger.CO1:
+			synchronized (_CO1_monitor) {
+				q = Math.min(q,_CO1);
+				_CO1 -= q;
+			}
+			return q;
+		case GasLedger.DETRITUS:
+			synchronized (_detritus_monitor) {
+				q = Math.min(q,_detritus);
+				_detritus -= q;
+			}
+			return q;
+		default:
+			throw new IllegalArgumentException("gas " + gas + " can't be withdrawn");
+		}
+	}
 	/**
 	 * Takes the given amount of CO2 from the atmosphere and converts it to O2.
 	 * If the atmosphere doesn't have enough CO2, only the available amount is
@@ -443,6 +742,12 @@ public class World implements Serializable{
 	 * unless there weren't enough CO2 in the atmosphere.
 	 */
 	public double convertCO2ToO2(double q) {
+		GasLedger ledger = GasLedger.current();
+		if (ledger != null) {
+			q = ledger.take(GasLedger.CO2, q, this);
+			ledger.stock[GasLedger.O2] += q;
+			return q;
+		}
 		synchronized (_CO2_monitor) {
 			synchronized (_O2_monitor) {
 				double d = Math.min(q,_CO2);
@@ -461,6 +766,18 @@ public class World implements Serializable{
 	 * @return  The amount of O2 obtained. This is always <code>q</code>
 	 */
 	public double respiration(double q) {
+		FrameTile tile = FrameTile.current();
+		if (tile != null) {
+			tile.O2 -= q;
+			tile.CO2 += q;
+			return q;
+		}
+		GasLedger ledger = GasLedger.current();
+		if (ledger != null) {
+			ledger.stock[GasLedger.O2] -= q;
+			ledger.stock[GasLedger.CO2] += q;
+			return q;
+		}
 		synchronized (_CO2_monitor) {
 			synchronized (_O2_monitor) {
 				_O2 -= q;
@@ -477,6 +794,18 @@ public class World implements Serializable{
 	 * @return  The amount of O2 obtained. This is always <code>q</code>
 	 */
 	public double decomposition(double q) {
+		FrameTile tile = FrameTile.current();
+		if (tile != null) {
+			tile.O2 -= q;
+			tile.CH4 += q;
+			return q;
+		}
+		GasLedger ledger = GasLedger.current();
+		if (ledger != null) {
+			ledger.stock[GasLedger.O2] -= q;
+			ledger.stock[GasLedger.CH4] += q;
+			return q;
+		}
 		synchronized (_CH4_monitor) {
 			synchronized (_O2_monitor) {
 				_O2 -= q;
@@ -493,6 +822,18 @@ public class World implements Serializable{
 	 * @return  The amount of O2 obtained. This is always <code>q</code>
 	 */
 	public double energyuse(double q) {
+		FrameTile tile = FrameTile.current();
+		if (tile != null) {
+			tile.O2 -= q;
+			tile.CO1 += q;
+			return q;
+		}
+		GasLedger ledger = GasLedger.current();
+		if (ledger != null) {
+			ledger.stock[GasLedger.O2] -= q;
+			ledger.stock[GasLedger.CO1] += q;
+			return q;
+		}
 		synchronized (_CO1_monitor) {
 			synchronized (_O2_monitor) {
 				_O2 -= q;
@@ -509,6 +850,18 @@ public class World implements Serializable{
 	 * @return  The amount of O2 obtained. This is always <code>q</code>
 	 */
 	public double detritusproduction(double q) {
+		FrameTile tile = FrameTile.current();
+		if (tile != null) {
+			tile.O2 -= q;
+			tile.detritus += q;
+			return q;
+		}
+		GasLedger ledger = GasLedger.current();
+		if (ledger != null) {
+			ledger.stock[GasLedger.O2] -= q;
+			ledger.stock[GasLedger.DETRITUS] += q;
+			return q;
+		}
 		synchronized (_detritus_monitor) {
 			synchronized (_O2_monitor) {
 				_O2 -= q;
@@ -535,6 +888,22 @@ public class World implements Serializable{
 	 * @return  The amount of CO2 obtained.
 	 */
 	public double photosynthesis(double q) {
+		FrameTile tile = FrameTile.current();
+		if (tile != null) {
+			// all tiles see the levels at the start of the frame, and
+			// take at most their share of them
+			q = Utils.min(q,q*_CO2/Utils.DRAIN_SUBS_DIVISOR,tile.available(_CO2,tile.CO2));
+			tile.CO2 -= q;
+			tile.O2 += q;
+			return q;
+		}
+		GasLedger ledger = GasLedger.current();
+		if (ledger != null) {
+			q = Math.min(q,q*GasLedger.startLevel(GasLedger.CO2)/Utils.DRAIN_SUBS_DIVISOR);
+			q = ledger.take(GasLedger.CO2, q, this);
+			ledger.stock[GasLedger.O2] += q;
+			return q;
+		}
 		synchronized (_CO2_monitor) {
 			synchronized (_O2_monitor) {
 				q = Utils.min(q,q*_CO2/Utils.DRAIN_SUBS_DIVISOR,_CO2);
@@ -562,6 +931,22 @@ public class World implements Serializable{
 	 * @return  The amount of CH4 obtained.
 	 */
 	public double methanotrophy(double q) {
+		FrameTile tile = FrameTile.current();
+		if (tile != null) {
+			// all tiles see the levels at the start of the frame, and
+			// take at most their share of them
+			q = Utils.min(q,q*_CH4/Utils.DRAIN_SUBS_DIVISOR,tile.available(_CH4,tile.CH4));
+			tile.CH4 -= q;
+			tile.O2 += q;
+			return q;
+		}
+		GasLedger ledger = GasLedger.current();
+		if (ledger != null) {
+			q = Math.min(q,q*GasLedger.startLevel(GasLedger.CH4)/Utils.DRAIN_SUBS_DIVISOR);
+			q = ledger.take(GasLedger.CH4, q, this);
+			ledger.stock[GasLedger.O2] += q;
+			return q;
+		}
 		synchronized (_CH4_monitor) {
 			synchronized (_O2_monitor) {
 				q = Utils.min(q,q*_CH4/Utils.DRAIN_SUBS_DIVISOR,_CH4);
@@ -589,6 +974,22 @@ public class World implements Serializable{
 	 * @return  The amount of CO obtained.
 	 */
 	public double COphotosynthesis(double q) {
+		FrameTile tile = FrameTile.current();
+		if (tile != null) {
+			// all tiles see the levels at the start of the frame, and
+			// take at most their share of them
+			q = Utils.min(q,q*_CO1/Utils.DRAIN_SUBS_DIVISOR,tile.available(_CO1,tile.CO1));
+			tile.CO1 -= q;
+			tile.O2 += q;
+			return q;
+		}
+		GasLedger ledger = GasLedger.current();
+		if (ledger != null) {
+			q = Math.min(q,q*GasLedger.startLevel(GasLedger.CO1)/Utils.DRAIN_SUBS_DIVISOR);
+			q = ledger.take(GasLedger.CO1, q, this);
+			ledger.stock[GasLedger.O2] += q;
+			return q;
+		}
 		synchronized (_CO1_monitor) {
 			synchronized (_O2_monitor) {
 				q = Utils.min(q,q*_CO1/Utils.DRAIN_SUBS_DIVISOR,_CO1);
@@ -616,6 +1017,22 @@ public class World implements Serializable{
 	 * @return  The amount of detritus obtained.
 	 */
 	public double filterfeeding(double q) {
+		FrameTile tile = FrameTile.current();
+		if (tile != null) {
+			// all tiles see the levels at the start of the frame, and
+			// take at most their share of them
+			q = Utils.min(q,q*_detritus/Utils.DRAIN_SUBS_DIVISOR,tile.available(_detritus,tile.detritus));
+			tile.detritus -= q;
+			tile.O2 += q;
+			return q;
+		}
+		GasLedger ledger = GasLedger.current();
+		if (ledger != null) {
+			q = Math.min(q,q*GasLedger.startLevel(GasLedger.DETRITUS)/Utils.DRAIN_SUBS_DIVISOR);
+			q = ledger.take(GasLedger.DETRITUS, q, this);
+			ledger.stock[GasLedger.O2] += q;
+			return q;
+		}
 		synchronized (_detritus_monitor) {
 			synchronized (_O2_monitor) {
 				q = Utils.min(q,q*_detritus/Utils.DRAIN_SUBS_DIVISOR,_detritus);
@@ -635,10 +1052,14 @@ public class World implements Serializable{
 		_visibleWorld = visibleWorld;
 		_width = Utils.WORLD_WIDTH;
 		_height = Utils.WORLD_HEIGHT;
-		_organisms = Collections.synchronizedSet(new HashSet<>());
+		_organisms = new OrganismStore();
 		inCorridors = Collections.synchronizedList(new ArrayList<InCorridor>());
 		outCorridors = Collections.synchronizedList(new ArrayList<OutCorridor>());
 		worldStatistics = new WorldStatistics(_visibleWorld.getMainWindow());
+		rebuildOrganismBuckets();
+		rebuildCladeRegistry();
+		createEventBus();
+		organismPool = new OrganismPool();
 
 		Utils.addRepaintWorldChangeListener(new RepaintWorldChangeListener() {
 			@Override
@@ -678,12 +1099,14 @@ public class World implements Serializable{
 		_population = 0;
 		_visibleWorld.setSelectedOrganism(null);
 		_organisms.clear();
+		rebuildCladeRegistry();
 		// Initialize size
 		_width = Utils.WORLD_WIDTH;
 		_height = Utils.WORLD_HEIGHT;
 		Dimension d = new Dimension(_width, _height);
 		VisibleWorld.originalPreferredSize = d;
 		_visibleWorld.setPreferredSize(d);
+		rebuildOrganismBuckets();
 		// Create statistics
 		worldStatistics = new WorldStatistics(_visibleWorld.getMainWindow());
 		// Create organisms
@@ -729,7 +1152,6 @@ public class World implements Serializable{
 	 * @param fullRedraw True if a full redraw is required.
 	 */
 	public void draw(Graphics g, boolean fullRedraw) {
-		Organism b;
 		if (_corridorexists) {
 			Corridor c;
 			synchronized (inCorridors) {
@@ -745,37 +1167,23 @@ public class World implements Serializable{
 				}
 			}
 		}
-		synchronized (_organisms) {
-			if (organismBuckets != null && !fullRedraw) {
-				final JViewport viewport = (JViewport) SwingUtilities.getAncestorOfClass(JViewport.class, (VisibleWorld) _visibleWorld);
-				final Rectangle view = viewport.getViewRect();
-				final double zoomFactor = VisibleWorld.zoomFactor;
-				final double bucketSize = (double)organismBuckets.getBucketSize();
-				int minx; int miny; int maxx; int maxy;
-				if (zoomFactor == 1) {
-					minx = Math.max(0, (int)(view.x / bucketSize));
-					miny = Math.max(0, (int)(view.y / bucketSize));
-					maxx = Math.min(organismBuckets.getMaxWidth(), (int)((view.x + view.width) / bucketSize));
-					maxy = Math.min(organismBuckets.getMaxHeight(), (int)((view.y + view.height) / bucketSize));
-				} else {
-					minx = (int)Math.max(0, ((double)view.x / zoomFactor) / bucketSize);
-					miny = (int)Math.max(0, ((double)view.y / zoomFactor) / bucketSize);
-					maxx = (int)Math.min((double)organismBuckets.getMaxWidth(), ((((double)view.x + (double)view.width)) / zoomFactor) / bucketSize);
-					maxy = (int)Math.min((double)organismBuckets.getMaxHeight(), ((((double)view.y + (double)view.height)) / zoomFactor) / bucketSize);
-				}
-				for (int y = miny; y <= maxy; y++) {
-					for (int x = minx; x <= maxx; x++) {
-						Collection<Organism> bucket = organismBuckets.getBucket(x, y);
-						for (Organism o : bucket) {
-							o.draw(g);
-						}
-					}
-				}
-			} else {
-				for (Iterator<Organism> it = _organisms.iterator(); it.hasNext();) {
-					b = it.next();
-					b.draw(g);
-				}
+		if (!fullRedraw) {
+			// Only the organisms in the viewport, from the snapshot so that painting never
+			// waits for the frame
+			final JViewport viewport = (JViewport) SwingUtilities.getAncestorOfClass(JViewport.class, (VisibleWorld) _visibleWorld);
+			final Rectangle view = viewport.getViewRect();
+			final double zoomFactor = VisibleWorld.zoomFactor;
+			final int minx = (int) Math.floor(view.x / zoomFactor);
+			final int miny = (int) Math.floor(view.y / zoomFactor);
+			final int maxx = (int) Math.ceil((view.x + view.width) / zoomFactor);
+			final int maxy = (int) Math.ceil((view.y + view.height) / zoomFactor);
+			for (Organism o : organismStore().snapshot()) {
+				if (o.x <= maxx && o.y <= maxy && o.x + o.width >= minx && o.y + o.height >= miny)
+					o.draw(g);
+			}
+		} else {
+			for (Organism o : organismStore().snapshot()) {
+				o.draw(g);
 			}
 		}
 	}
@@ -789,7 +1197,7 @@ public class World implements Serializable{
 	 * and every 256 frames the time counter is increased by 1.
 	 */
 	public synchronized void time() {
-		organismBuckets = new OrganismBuckets(_width, _height, 70);
+		frameCount++;
 		if (_corridorexists) {
 			InCorridor c;
 			synchronized (inCorridors) {
@@ -799,12 +1207,28 @@ public class World implements Serializable{
 				}
 			}
 		}
-		synchronized (_organisms) {
-			for (Organism o: _organisms) {
-				organismBuckets.insert(o);
+		organismBuckets.prepareFrame(organismStore());
+		organismStore().startFrame();
+		events.startBatch();
+		try {
+			if (Utils.DETERMINISTIC) {
+				commitFrameTiles(ParallelExecutor.progressAllOrganismsInOrder(organismStore(), organismBuckets, _visibleWorld, events,
+						Utils.random.nextLong()));
+			} else if (Utils.between(Utils.THREAD_COUNT, 1, 100) > 1) {
+				GasLedger.open(new double[] {_O2, _CO2, _CH4, _CO1, _detritus}, Utils.between(Utils.THREAD_COUNT, 1, 100));
+				try {
+					ParallelExecutor.progressAllOrganisms(organismStore(), organismBuckets, _visibleWorld, events);
+				} finally {
+					commitGasLedgers();
+				}
+			} else {
+				ParallelExecutor.progressAllOrganisms(organismStore(), organismBuckets, _visibleWorld, events);
 			}
+		} finally {
+			events.deliverBatch();
+			organismStore().endFrame();
+			organismPool.endFrame();
 		}
-		ParallelExecutor.progressAllOrganisms(_organisms, organismBuckets, _visibleWorld);
 		// Reactions turning CO2 and CH4 into each other, detritus into CO, and CO into CO2
 		synchronized (_CH4_monitor) {
 			synchronized (_CO2_monitor) {
@@ -832,14 +1256,58 @@ public class World implements Serializable{
 				}
 			}
 		}
-		if (nFrames++ % 20 == 0)
-			_visibleWorld.getMainWindow().getInfoPanel().recalculate();
+		if (nFrames++ % 20 == 0 && getInfoPanel() != null)
+			getInfoPanel().recalculate();
 		if (nFrames % 256 == 0) {
 			nFrames = 0;
+			adaptOrganismBuckets();
 			worldStatistics.eventTime(_population, getDistinctCladeIDCount(1), getDistinctCladeIDCount(10), getDistinctCladeIDCount(100), _O2, _CO2, _CO1, _CH4, _detritus, _organisms);
+			cladeRegistry.sample(worldStatistics.getTime());
 			_isbackuped = false;
 			_issaved = false;
 		}
+		// Keep neighbours next to each other in memory
+		if (Utils.SORT_ORGANISMS_FRAMES > 0 && frameCount % Utils.SORT_ORGANISMS_FRAMES == 0)
+			organismStore().sortByPosition(organismBuckets.getBucketSize());
+	}
+
+	/**
+	 * Returns the gases held by the threads of a parallel frame to the atmosphere.
+	 */
+	private void commitGasLedgers() {
+		double[] stocks = GasLedger.close();
+		_O2 += stocks[GasLedger.O2];
+		_CO2 += stocks[GasLedger.CO2];
+		_CH4 += stocks[GasLedger.CH4];
+		_CO1 += stocks[GasLedger.CO1];
+		_detritus += stocks[GasLedger.DETRITUS];
+	}
+
+	/**
+	 * Applies the changes made by the tiles of a deterministic frame, in the given order:
+	 * the changes in the gases, the delayed events and the identification numbers given.
+	 * Every tile takes CO2, CO, CH4 and detritus only from its share of the levels at
+	 * the start of the frame, so they never go below 0. O2 is taken by respiration
+	 * without a limit, like in serial frames.
+	 *
+	 * @param tiles  The tiles of the frame, in order.
+	 */
+	private void commitFrameTiles(List<FrameTile> tiles) {
+		int ids = 0;
+		int cladeParts = 0;
+		for (FrameTile tile : tiles) {
+			_O2 += tile.O2;
+			_CO2 += tile.CO2;
+			_CO1 += tile.CO1;
+			_CH4 += tile.CH4;
+			_detritus += tile.detritus;
+			for (Runnable event : tile.events)
+				event.run();
+			ids = Math.max(ids, tile.ids);
+			cladeParts = Math.max(cladeParts, tile.cladeParts);
+		}
+		NEXT_ID += ids * tiles.size();
+		NEXT_CLADE_PART += cladeParts * tiles.size();
 	}
 
 	/**
@@ -905,21 +1373,33 @@ public class World implements Serializable{
 	 * rectangle of {@code b1} or null if there is no such organism.
 	 */
 	public Organism genesisCheckHit(Organism b1) {
-		Organism b;
-		synchronized (_organisms) {
-			for (Iterator<Organism> it = _organisms.iterator(); it.hasNext(); ) {
-				b = it.next();
-				if (b1 != b) {
-					if (b1.intersects(b)) {
-						return b1;
-					}
+		OrganismStore store = organismStore();
+		synchronized (store) {
+			KinematicStore k = store.getKinematics();
+			for (int i = store.size() - 1; i >= 0; i--) {
+				if (k.intersects(i, b1.x, b1.y, b1.width, b1.height) && store.get(i) != b1) {
+					return b1;
 				}
 			}
 		}
 		return null;
 	}
 
-	public transient OrganismBuckets organismBuckets = new OrganismBuckets(_width, _height, 70);
+	/**
+	 * Spatial index of all organisms in the world, used for collision detection and drawing.
+	 * Organisms are inserted in {@link #addOrganism}, update their position in
+	 * {@link Organism#move} and are removed when they are removed from the world.
+	 */
+	public transient OrganismIndex organismBuckets;
+	/**
+	 * Bucket size of the spatial index when there are no organisms to measure.
+	 */
+	private static final int DEFAULT_BUCKET_SIZE = 70;
+	/**
+	 * Limits of the bucket size chosen in {@link #chooseBucketSize}.
+	 */
+	private static final int MIN_BUCKET_SIZE = 20;
+	private static final int MAX_BUCKET_SIZE = 400;
 
 	/**
 	 * Checks if an organism has a high probability of being in touch with
@@ -974,9 +1454,18 @@ public class World implements Serializable{
 			if (collidingOrganism != org1) {
 				// First check if the bounding boxes intersect
 				if (org1.intersects(collidingOrganism)) {
+					collidingOrganism.wakeUp();
 					if (collidingOrganism.getEnergy() >= Utils.tol && org1.getEnergy() >= Utils.tol) {
 						// Check if they are touching
-						if (org1.contact(collidingOrganism)) {
+						if (org1.hasContactedThisFrame(collidingOrganism)) {
+							// The effects of this pair were already applied in this frame,
+							// only check if they are still touching
+							if (org1.touches(collidingOrganism)) {
+								return true;
+							}
+						} else if (org1.contact(collidingOrganism)) {
+							org1.rememberContact(collidingOrganism);
+							collidingOrganism.rememberContact(org1);
 							return true;
 						}
 					}
@@ -996,37 +1485,81 @@ public class World implements Serializable{
 	 * @param parent  The parent of the added organism, or null if there is no parent.
 	 */
 	public void addOrganism(Organism child, Organism parent) {
-		_organisms.add(child);
-		if (parent == _visibleWorld.getSelectedOrganism())
-			_visibleWorld.getMainWindow().getInfoPanel().changeNChildren();
-		if (parent != null) {
-			worldStatistics.eventOrganismBorn(child, parent);
-		}
-		worldStatistics.eventOrganismCreated();
+		// Insert it right away, so organisms placed later in this frame will not overlap with it
+		organismBuckets.insert(child);
+		wakeUpNeighbours(child);
+		ParallelExecutor.organismAdded(child);
+		if (!FrameTile.delay(() -> organismAdded(child, parent)))
+			organismAdded(child, parent);
+	}
+	/**
+	 * Wakes up the organisms whose bounding box intersects the one of the given
+	 * organism, because it has just appeared or disappeared next to them. Only
+	 * needed if sleeping plants skip their checks, see {@link Utils#SLEEPING_PLANTS}.
+	 *
+	 * @param organism  An organism that was just added or removed.
+	 */
+	void wakeUpNeighbours(Organism organism) {
+		if (!Utils.SLEEPING_PLANTS)
+			return;
+		organismBuckets.findFirst(organism, neighbour -> {
+			if (neighbour != organism && organism.intersects(neighbour))
+				neighbour.wakeUp();
+			return false;
+		});
+	}
+	/**
+	 * Posts the event that adds a new organism to the list of organisms and
+	 * updates statistics. Part of {@link #addOrganism}, delayed to the end of
+	 * deterministic frames.
+	 */
+	private void organismAdded(Organism child, Organism parent) {
+		events.organismAdded(child, parent);
 		increasePopulation();
 	}
 	/**
-	 * Informs the world of a defunction event. This will update statistics.
+	 * Informs the world of a defunction event. This will update statistics,
+	 * at the end of the frame if called during one.
 	 *
 	 * @param dyingOrganism  The organism that has just died.
 	 * @param killingOrganism  The organism that has killed the other organism, if any.
 	 */
 	public void organismHasDied(Organism dyingOrganism, Organism killingOrganism) {
-		worldStatistics.eventOrganismDie(dyingOrganism, killingOrganism);
-		if (killingOrganism == _visibleWorld.getSelectedOrganism())
-			_visibleWorld.getMainWindow().getInfoPanel().changeNKills();
-		if (dyingOrganism == _visibleWorld.getSelectedOrganism())
-			_visibleWorld.showDeadToolbar();
+		if (FrameTile.delay(() -> organismHasDied(dyingOrganism, killingOrganism)))
+			return;
+		events.organismDied(dyingOrganism, killingOrganism);
+	}
+	/**
+	 * Informs the world that a dead organism has been brought back to life.
+	 * This will update the population and the clade registry.
+	 *
+	 * @param organism  The organism that is alive again.
+	 */
+	public void organismHasBeenRevived(Organism organism) {
+		events.organismRevived(organism);
+		increasePopulation();
+	}
+	/**
+	 * Informs the world that an organism has left it through a corridor.
+	 * This will update the clade registry.
+	 *
+	 * @param organism  The organism that has left.
+	 */
+	public void organismHasLeft(Organism organism) {
+		if (FrameTile.delay(() -> organismHasLeft(organism)))
+			return;
+		events.organismLeft(organism);
 	}
 	/**
-	 * Informs the world of an infection event. This will update statistics.
+	 * Informs the world of an infection event. This will update statistics,
+	 * at the end of the frame if called during one.
 	 *
 	 * @param infectedOrganism  The organism that has just been infected.
 	 * @param infectingOrganism  The organism that has infected the other organism.
 	 */
 	public void organismHasBeenInfected(Organism infectedOrganism, Organism infectingOrganism) {
-		worldStatistics.eventOrganismInfects(infectedOrganism, infectingOrganism);
-		if (infectingOrganism == _visibleWorld.getSelectedOrganism())
-			_visibleWorld.getMainWindow().getInfoPanel().changeNInfected();
+		if (FrameTile.delay(() -> organismHasBeenInfected(infectedOrganism, infectingOrganism)))
+			return;
+		events.organismInfected(infectedOrganism, infectingOrganism);
 	}
 }
@@ -0,0 +1,263 @@
+package biogenesis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Delivers the events of a {@link World} to its listeners.
+ *
+ * During a frame, events are posted by the threads that progress the organisms. Instead of
+ * delivering them right away, which would need the listeners to be thread safe, every thread
+ * appends them to its own buffer, and the buffers are delivered at the end of the frame, in the
+ * thread that runs it. Events posted outside of frames are delivered right away. Either way,
+ * listeners never get two events at the same time.
+ *
+ * So a frame has two phases: while organisms are progressed, births, deaths, removals and
+ * other changes to the world are only queued, and at the end of the frame they are committed.
+ * Every event remembers the organism that was being progressed when it was posted (see
+ * {@link #enterOrganism}), and events are committed in the order of those organisms in the
+ * {@link OrganismStore}, so the order doesn't depend on which thread progressed them or when.
+ */
+public class WorldEventBus {
+  private static final int ADDED = 0;
+  private static final int DIED = 1;
+  private static final int INFECTED = 2;
+  private static final int POPULATION_INCREASED = 3;
+  private static final int POPULATION_DECREASED = 4;
+  private static final int REVIVED = 5;
+  private static final int LEFT = 6;
+  private static final int REMOVED = 7;
+  private static final int ACTION = 8;
+  /**
+   * The source of events posted while no organism is being progressed. They are committed
+   * after all the others.
+   */
+  private static final int NO_SOURCE = Integer.MAX_VALUE;
+
+  private final List<WorldEventListener> listeners = new CopyOnWriteArrayList<>();
+  private final ThreadLocal<Buffer> buffers = new ThreadLocal<Buffer>() {
+    @Override
+    protected Buffer initialValue() {
+      return new Buffer();
+    }
+  };
+  /**
+   * The buffers that have events in this frame. Guarded by itself.
+   */
+  private final List<Buffer> used = new ArrayList<>();
+  private volatile boolean batching;
+  private volatile int frame;
+
+  /**
+   * Adds a listener. Listeners get the events in the order they were added.
+   */
+  public void addListener(WorldEventListener listener) {
+    listeners.add(listener);
+  }
+
+  public void removeListener(WorldEventListener listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Starts buffering the events posted by all threads, until {@link #deliverBatch()}.
+   */
+  public void startBatch() {
+    frame++;
+    batching = true;
+  }
+
+  /**
+   * Stops buffering events and delivers the buffered ones, in the order of the organisms that
+   * posted them. The events posted while progressing one organism keep their order.
+   */
+  public synchronized void deliverBatch() {
+    batching = false;
+    Buffer all = new Buffer();
+    synchronized (used) {
+      for (Buffer buffer : used) {
+        synchronized (buffer) {
+          for (int i = 0; i < buffer.size; i++) {
+            all.source = buffer.sources[i];
+            all.add(buffer.types[i], buffer.first[i], buffer.second[i], buffer.actions[i]);
+          }
+          buffer.clear();
+        }
+      }
+      used.clear();
+    }
+    // Sort by source, then by position in the merged buffer
+    long[] keys = new long[all.size];
+    for (int i = 0; i < all.size; i++) {
+      keys[i] = (long) all.sources[i] << 32 | i;
+    }
+    Arrays.sort(keys);
+    for (long key : keys) {
+      int i = (int) key;
+      deliver(all.types[i], all.first[i], all.second[i], all.actions[i]);
+    }
+  }
+
+  /**
+   * Makes the events posted by the current thread, until {@link #exitOrganism()}, be committed
+   * in the place of the given organism, which is about to be progressed.
+   */
+  public void enterOrganism(Organism organism) {
+    buffers.get().source = organism._storeIndex < 0 ? NO_SOURCE : organism._storeIndex;
+  }
+
+  public void exitOrganism() {
+    buffers.get().source = NO_SOURCE;
+  }
+
+  public void organismAdded(Organism child, Organism parent) {
+    post(ADDED, child, parent);
+  }
+
+  public void organismDied(Organism dyingOrganism, Organism killingOrganism) {
+    post(DIED, dyingOrganism, killingOrganism);
+  }
+
+  public void organismInfected(Organism infectedOrganism, Organism infectingOrganism) {
+    post(INFECTED, infectedOrganism, infectingOrganism);
+  }
+
+  public void organismRevived(Organism organism) {
+    post(REVIVED, organism, null);
+  }
+
+  public void organismLeft(Organism organism) {
+    post(LEFT, organism, null);
+  }
+
+  /**
+   * The organism must be removed from the list of organisms of the world, because it has
+   * decomposed or left it.
+   */
+  public void organismRemoved(Organism organism) {
+    post(REMOVED, organism, null);
+  }
+
+  /**
+   * Runs an action when the other events posted now are delivered: at the end of the frame if
+   * called during one, or right away. Used for changes to the world that can't be made while
+   * other threads progress organisms.
+   */
+  public void postAction(Runnable action) {
+    post(ACTION, null, null, action);
+  }
+
+  public void populationIncreased() {
+    post(POPULATION_INCREASED, null, null);
+  }
+
+  public void populationDecreased() {
+    post(POPULATION_DECREASED, null, null);
+  }
+
+  private void post(int type, Organism first, Organism second) {
+    post(type, first, second, null);
+  }
+
+  private void post(int type, Organism first, Organism second, Runnable action) {
+    if (!batching) {
+      synchronized (this) {
+        deliver(type, first, second, action);
+      }
+      return;
+    }
+    Buffer buffer = buffers.get();
+    int currentFrame = frame;
+    if (buffer.frame != currentFrame) {
+      buffer.frame = currentFrame;
+      synchronized (used) {
+        used.add(buffer);
+      }
+    }
+    // Only contended if a thread posts while the batch is being delivered
+    synchronized (buffer) {
+      buffer.add(type, first, second, action);
+    }
+  }
+
+  private void deliver(int type, Organism first, Organism second, Runnable action) {
+    if (type == ACTION) {
+      action.run();
+      return;
+    }
+    for (WorldEventListener listener : listeners) {
+      switch (type) {
+      case ADDED:
+        listener.organismAdded(first, second);
+        break;
+      case DIED:
+        listener.organismDied(first, second);
+        break;
+      case INFECTED:
+        listener.organismInfected(first, second);
+        break;
+      case POPULATION_INCREASED:
+        listener.populationIncreased();
+        break;
+      case POPULATION_DECREASED:
+        listener.populationDecreased();
+        break;
+      case REVIVED:
+        listener.organismRevived(first);
+        break;
+      case LEFT:
+        listener.organismLeft(first);
+        break;
+      case REMOVED:
+        listener.organismRemoved(first);
+        break;
+      }
+    }
+  }
+
+  /**
+   * The events posted by one thread during a frame.
+   */
+  private static class Buffer {
+    /**
+     * The last frame this buffer was registered in. Only used by its thread.
+     */
+    int frame;
+    /**
+     * The index in the store of the organism being progressed by the thread, see
+     * {@link WorldEventBus#enterOrganism}.
+     */
+    int source = NO_SOURCE;
+    int size;
+    int[] types = new int[16];
+    int[] sources = new int[16];
+    Organism[] first = new Organism[16];
+    Organism[] second = new Organism[16];
+    Runnable[] actions = new Runnable[16];
+
+    void add(int type, Organism a, Organism b, Runnable action) {
+      if (size == types.length) {
+        types = Arrays.copyOf(types, size * 2);
+        sources = Arrays.copyOf(sources, size * 2);
+        first = Arrays.copyOf(first, size * 2);
+        second = Arrays.copyOf(second, size * 2);
+        actions = Arrays.copyOf(actions, size * 2);
+      }
+      types[size] = type;
+      sources[size] = source;
+      first[size] = a;
+      second[size] = b;
+      actions[size] = action;
+      size++;
+    }
+
+    void clear() {
+      Arrays.fill(first, 0, size, null);
+      Arrays.fill(second, 0, size, null);
+      Arrays.fill(actions, 0, size, null);
+      size = 0;
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package biogenesis;
+
+/**
+ * A listener of the events of a {@link World}, see {@link WorldEventBus}.
+ * Events are always delivered one at a time, and during a frame they are delivered at its end,
+ * in the thread that runs the frame.
+ */
+public interface WorldEventListener {
+  /**
+   * A new organism has been added to the world.
+   *
+   * @param child the new organism
+   * @param parent the organism it was born from, or null if it was created
+   */
+  public default void organismAdded(Organism child, Organism parent) {}
+
+  /**
+   * An organism has died.
+   *
+   * @param dyingOrganism the organism that died
+   * @param killingOrganism the organism that killed it, if any
+   */
+  public default void organismDied(Organism dyingOrganism, Organism killingOrganism) {}
+
+  /**
+   * An organism has been infected.
+   *
+   * @param infectedOrganism the organism that has been infected
+   * @param infectingOrganism the organism that infected it, if any
+   */
+  public default void organismInfected(Organism infectedOrganism, Organism infectingOrganism) {}
+
+  /**
+   * A dead organism has been brought back to life.
+   *
+   * @param organism the organism
+   */
+  public default void organismRevived(Organism organism) {}
+
+  /**
+   * An organism has left the world through a corridor.
+   *
+   * @param organism the organism
+   */
+  public default void organismLeft(Organism organism) {}
+
+  /**
+   * An organism must be removed from the list of organisms of the world, because it has
+   * decomposed or left it. It is already gone from the spatial index.
+   *
+   * @param organism the organism
+   */
+  public default void organismRemoved(Organism organism) {}
+
+  /** The population of the world has increased by one. */
+  public default void populationIncreased() {}
+
+  /** The population of the world has decreased by one. */
+  public default void populationDecreased() {}
+}
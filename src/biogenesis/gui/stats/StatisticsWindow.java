@@ -33,7 +33,6 @@ import java.awt.event.WindowEvent;
 import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 
@@ -72,7 +71,6 @@ public class StatisticsWindow extends JDialog {
 	private final World world;
 	private final VisibleWorld visibleWorld;
 	private final WorldStatistics worldStatistics;
-	private final Collection<Organism> organisms;
 
 	private GraphPanel populationGraphPanel;
 	private GraphInfo deathsGraph;
@@ -124,13 +122,11 @@ public class StatisticsWindow extends JDialog {
 
 	private GraphInfo generationHistogram;
 
-	public StatisticsWindow(JFrame owner, World world, VisibleWorld visibleWorld, WorldStatistics ws,
-			Collection<Organism> os) {
+	public StatisticsWindow(JFrame owner, World world, VisibleWorld visibleWorld, WorldStatistics ws) {
 		super((JDialog) null, false);
 		this.world = world;
 		this.visibleWorld = visibleWorld;
 		worldStatistics = ws;
-		organisms = os;
 		setDefaultCloseOperation(DISPOSE_ON_CLOSE);
 		setTitle(Messages.getString("T_STATISTICS")); //$NON-NLS-1$
 
@@ -602,15 +598,13 @@ public class StatisticsWindow extends JDialog {
 		colorCounter[49] = new InfoAndColor(0, Utils.ColorDARK);
 		colorCounter[50] = new InfoAndColor(0, Utils.ColorEYE);
 
-		synchronized (organisms) {
-			for (Iterator<Organism> it = organisms.iterator(); it.hasNext();) {
-				GeneticCode gc = it.next().getGeneticCode();
-				for (int i = 0; i < gc.getNGenes(); i++) {
-					Color c = gc.getGene(i).getColor();
-					for (int j = 0; j < colorCounter.length; j++) {
-						if (c.equals(colorCounter[j].color)) {
-							colorCounter[j].info++;
-						}
+		for (Organism o : world.getOrganismsSnapshot()) {
+			GeneticCode gc = o.getGeneticCode();
+			for (int i = 0; i < gc.getNGenes(); i++) {
+				Color c = gc.getGene(i).getColor();
+				for (int j = 0; j < colorCounter.length; j++) {
+					if (c.equals(colorCounter[j].color)) {
+						colorCounter[j].info++;
 					}
 				}
 			}
@@ -621,7 +615,7 @@ public class StatisticsWindow extends JDialog {
 
 	private void updatePerformed(ActionEvent e) {
 		// Update world statistics
-		worldStatistics.findBestAliveBeings(organisms);
+		worldStatistics.findBestAliveBeings(Arrays.asList(world.getOrganismsSnapshot()));
 
 		long minTime = Math.max(world.getTime() - 100, 0);
 		long maxTime = world.getTime();
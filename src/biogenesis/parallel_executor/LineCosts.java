@@ -0,0 +1,89 @@
+package biogenesis.parallel_executor;
+
+import java.util.Arrays;
+
+/**
+ * LineCosts records what it cost to progress every vertical line of buckets in the last frame:
+ * the number of organisms, their number of segments and the time it took. It uses them to
+ * estimate the cost of every line in the next frame, for ThreadStartIndexes.partition.
+ *
+ * Every line is processed by a single thread in a frame, so every element is written by one
+ * thread only, and it is read after all of them are done.
+ */
+public class LineCosts {
+  private static long[] nanos;
+  private static int[] organisms;
+  private static int[] segments;
+
+  /**
+   * Clears the recorded costs if the number of lines changed, e.g. because the world rebuilt its
+   * buckets with a different size.
+   */
+  public static void initialize(int lineCount) {
+    if (nanos == null || nanos.length != lineCount) {
+      nanos = new long[lineCount];
+      organisms = new int[lineCount];
+      segments = new int[lineCount];
+    }
+  }
+
+  /**
+   * Records the cost of processing a line in this frame.
+   *
+   * @param line the index of the line
+   * @param lineNanos how long it took, in nanoseconds
+   * @param lineOrganisms the number of organisms moved
+   * @param lineSegments the total number of segments of the organisms moved
+   */
+  public static void record(int line, long lineNanos, int lineOrganisms, int lineSegments) {
+    nanos[line] = lineNanos;
+    organisms[line] = lineOrganisms;
+    segments[line] = lineSegments;
+  }
+
+  /**
+   * Returns the estimated cost of every line, in nanoseconds.
+   * The measured time of a single line is noisy (a GC pause or a context switch can land on any
+   * line), so it is averaged with the share of the total time that corresponds to the segments
+   * in that line. Segments are what contact detection and effects iterate over.
+   */
+  public static double[] estimate() {
+    long totalNanos = 0;
+    long totalSegments = 0;
+    for (int i = 0; i < nanos.length; i++) {
+      totalNanos += nanos[i];
+      totalSegments += segments[i];
+    }
+    double[] costs = new double[nanos.length];
+    double nanosPerSegment = totalSegments > 0 ? (double) totalNanos / totalSegments : 0;
+    for (int i = 0; i < nanos.length; i++) {
+      costs[i] = totalSegments > 0 ? (nanos[i] + segments[i] * nanosPerSegment) / 2 : nanos[i];
+    }
+    return costs;
+  }
+
+  /**
+   * Returns the measured time of every line in the last frame, in nanoseconds.
+   */
+  public static double[] getNanos() {
+    double[] result = new double[nanos.length];
+    for (int i = 0; i < nanos.length; i++) {
+      result[i] = nanos[i];
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of organisms moved in every line in the last frame.
+   */
+  public static int[] getOrganisms() {
+    return Arrays.copyOf(organisms, organisms.length);
+  }
+
+  /**
+   * Only here for testing. Clears all costs.
+   */
+  public static void clear() {
+    nanos = null;
+  }
+}
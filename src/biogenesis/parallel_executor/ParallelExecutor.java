@@ -1,72 +1,134 @@
 package biogenesis.parallel_executor;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 
+import biogenesis.FrameTile;
+import biogenesis.KinematicStore;
 import biogenesis.Organism;
-import biogenesis.OrganismBuckets;
+import biogenesis.OrganismIndex;
+import biogenesis.OrganismStore;
 import biogenesis.Utils;
 import biogenesis.VisibleWorldInterface;
+import biogenesis.WorldEventBus;
 
 /**
  * This class is responsible for executing one step of the simulation in parallel for all organisms.
+ * How the work is split between threads depends on Utils.PARALLEL_SCHEDULER.
+ *
+ * The schedulers keep LINES_BETWEEN_THREADS lines of buckets between two threads, which only
+ * keeps them apart if organisms are not wider than that gap. The bucket size is chosen so that
+ * almost all of them fit, and the few that don't, and the organisms near them, are moved after
+ * the parallel phase, in one thread, see reserveOutliers.
  */
 public class ParallelExecutor {
-  private static Collection<Organism> checkedOrganisms = Collections.synchronizedSet(new HashSet<>());
+  /**
+   * The number of the current frame, used to claim every organism only once per frame.
+   */
+  private static int frame;
   private static List<WorkerThread> workerThreads = new ArrayList<>();
 
-  private static Collection<Organism> organisms;
-  private static OrganismBuckets organismBuckets;
+  private static OrganismStore organisms;
+  private static OrganismIndex organismBuckets;
   private static VisibleWorldInterface visibleWorld;
+  private static WorldEventBus events;
+  private static double imbalance = 1;
 
   /**
    * Progress one step for all organisms. Depending on Utils.THREAD_COUNT, it will do it in parallel
    * or in serial.
    * This will wait for all organisms to finish before returning, even when we use parallel execution.
    */
-  public static void progressAllOrganisms(Collection<Organism> organisms, OrganismBuckets organismBuckets,
-      VisibleWorldInterface visibleWorld) {
+  public static void progressAllOrganisms(OrganismStore organisms, OrganismIndex organismBuckets,
+      VisibleWorldInterface visibleWorld, WorldEventBus events) {
     ParallelExecutor.organisms = organisms;
     ParallelExecutor.organismBuckets = organismBuckets;
     ParallelExecutor.visibleWorld = visibleWorld;
+    ParallelExecutor.events = events;
+
+    frame++;
 
     final int organismCount = organisms.size();
     final int threadCount = Utils.between(Utils.THREAD_COUNT, 1, 100);
 
-    if (threadCount > 1) {
+    if (threadCount > 1 && Utils.PARALLEL_SCHEDULER == ParallelSchedulerType.TILES) {
+      progressAllOrganismsInTiles(organismCount, threadCount);
+    } else if (threadCount > 1) {
       progressAllOrganismsInParallel(organismCount, threadCount);
     } else {
       progressAllOrganismsInSerial(organismCount);
     }
   }
 
+  /**
+   * Progress one step for all organisms like progressAllOrganisms, but with results that don't
+   * depend on Utils.THREAD_COUNT: organisms are progressed in the tiles of TileScheduler, each
+   * with its own FrameTile, even with a single thread.
+   * The world must apply the changes kept in the returned tiles, in order.
+   *
+   * @param frameSeed the seed of the random streams of the tiles
+   * @return the FrameTiles of the frame, in the order their changes must be applied
+   */
+  public static List<FrameTile> progressAllOrganismsInOrder(OrganismStore organisms,
+      OrganismIndex organismBuckets, VisibleWorldInterface visibleWorld, WorldEventBus events, long frameSeed) {
+    ParallelExecutor.organisms = organisms;
+    ParallelExecutor.organismBuckets = organismBuckets;
+    ParallelExecutor.visibleWorld = visibleWorld;
+    ParallelExecutor.events = events;
+
+    frame++;
+
+    final int threadCount = Utils.between(Utils.THREAD_COUNT, 1, 100);
+    FrameTile.setActive(true);
+    try {
+      List<Organism> reserved = reserveOutliers();
+      return TileScheduler.progressAllTilesInOrder(threadCount, organismBuckets.getMaxWidth() + 1,
+          organismBuckets.getMaxHeight() + 1, frameSeed,
+          reserved.isEmpty() ? null : () -> progressReserved(reserved));
+    } finally {
+      FrameTile.setActive(false);
+    }
+  }
+
+  /**
+   * Called by the world when an organism is added, e.g. a child is born. The new organism is
+   * inserted into the organism buckets right away, so we need to make sure that it will not be
+   * moved in the same frame that it was born.
+   */
+  public static void organismAdded(Organism o) {
+    o.claimFrame(frame);
+  }
+
+  /**
+   * Progresses the organisms in the order of the store. Organisms are only added to or removed
+   * from the store at the end of the frame, so the store doesn't need to be copied.
+   */
   private static void progressAllOrganismsInSerial(int organismCount) {
-    for (Organism b : organisms.toArray(new Organism[0])) {
-      if (!b.move()) {
-        organisms.remove(b);
-        if (visibleWorld.getSelectedOrganism() == b) {
-          visibleWorld.setSelectedOrganism(null);
-        }
-      }
+    for (int i = 0; i < organismCount; i++) {
+      moveOrganism(organisms.get(i));
     }
   }
 
-  private static void progressAllOrganismsInParallel(int organismCount, int threadCount) {
-    // System.out.println("========================================================================================== in thread "+Thread.currentThread().getName());
-    if (checkedOrganisms == null) {
-      checkedOrganisms = new HashSet<>();
+  private static void progressAllOrganismsInTiles(int organismCount, int threadCount) {
+    int columnCount = organismBuckets.getMaxWidth() + 1;
+    int rowCount = organismBuckets.getMaxHeight() + 1;
+    if (!TileScheduler.canRunInParallel(columnCount, rowCount)) {
+      progressAllOrganismsInSerial(organismCount);
+      return;
     }
-    checkedOrganisms.clear();
+    List<Organism> reserved = reserveOutliers();
+    TileScheduler.progressAllTiles(threadCount, columnCount, rowCount);
+    progressReserved(reserved);
+  }
 
+  private static void progressAllOrganismsInParallel(int organismCount, int threadCount) {
+    // System.out.println("========================================================================================== in thread "+Thread.currentThread().getName());
     int lineCount = organismBuckets.getMaxWidth() + 1;
     if (threadCount * 5 > lineCount) { // not enough gap between threads
       progressAllOrganismsInSerial(organismCount);
       return;
     }
+    List<Organism> reserved = reserveOutliers();
 
     if (workerThreads == null) {
       workerThreads = new ArrayList<>();
@@ -84,10 +146,11 @@ public class ParallelExecutor {
         workerThread.start();
         workerThreads.add(workerThread);
       }
-
-      ThreadStartIndexes.initialize(threadCount, lineCount);
     }
+    // the line count changes when the world rebuilds its buckets with a different size
+    ThreadStartIndexes.initialize(threadCount, lineCount);
     LinesLocker.initialize(lineCount);
+    LineCosts.initialize(lineCount);
 
     // Split the buckets into vertical lines.
     // Do one line per thread.
@@ -101,53 +164,148 @@ public class ParallelExecutor {
       workerThreads.get(i).addJob(jobs[i]);
     }
 
-    long shortestNanos = Long.MAX_VALUE;
-    int shortestIndex = -1;
-    long longestNanos = Long.MIN_VALUE;
-    int longestIndex = -1;
-
     // wait till all jobs finish
     for (int i = 0; i < threadCount; i++) {
       // System.out.println("======> waiting for thread " + workerThreads.get(i).getName() + " to finish");
       workerThreads.get(i).waitTillDone();
       // System.out.println("======> waiting for thread " + workerThreads.get(i).getName() + " to finish done");
-      if (jobs[i].nanos < shortestNanos) {
-        shortestNanos = jobs[i].nanos;
-        shortestIndex = i;
+    }
+
+    // measure how well the work was split, then split the next frame by the cost of every line
+    imbalance = ThreadStartIndexes.getImbalance(LineCosts.getNanos());
+    ThreadStartIndexes.partition(LineCosts.estimate());
+
+    progressReserved(reserved);
+  }
+
+  /**
+   * Claims the organisms that are wider or taller than the gap between two threads, and every
+   * organism whose bounds are less than a gap away from them, so that the parallel phase leaves
+   * them alone. Organisms that are not reserved fit in the gap and move only a few pixels in a
+   * frame, so they can't reach a reserved outlier, and no two threads can touch it at once.
+   * The bounds are read from the KinematicStore, so this is one pass over its arrays when there
+   * are no outliers.
+   *
+   * @return the reserved organisms, in the order of the store
+   */
+  private static List<Organism> reserveOutliers() {
+    int gap = organismBuckets.getBucketSize() * ThreadStartIndexes.LINES_BETWEEN_THREADS;
+    KinematicStore k = organisms.getKinematics();
+    int organismCount = organisms.size();
+    List<Integer> outliers = new ArrayList<>();
+    for (int i = 0; i < organismCount; i++) {
+      if (k.getMaxX(i) - k.getMinX(i) > gap || k.getMaxY(i) - k.getMinY(i) > gap) {
+        outliers.add(i);
       }
-      if (jobs[i].nanos > longestNanos) {
-        longestNanos = jobs[i].nanos;
-        longestIndex = i;
+    }
+    List<Organism> reserved = new ArrayList<>();
+    if (outliers.isEmpty()) {
+      return reserved;
+    }
+    for (int i = 0; i < organismCount; i++) {
+      for (int outlier : outliers) {
+        if (k.intersects(i, k.getMinX(outlier) - gap, k.getMinY(outlier) - gap,
+            k.getMaxX(outlier) - k.getMinX(outlier) + 2 * gap, k.getMaxY(outlier) - k.getMinY(outlier) + 2 * gap)) {
+          Organism o = organisms.get(i);
+          if (o.claimFrame(frame)) {
+            reserved.add(o);
+          }
+          break;
+        }
       }
     }
+    return reserved;
+  }
+
+  /**
+   * Moves the organisms claimed by reserveOutliers, in one thread, after the parallel phase.
+   */
+  private static void progressReserved(List<Organism> reserved) {
+    for (Organism o : reserved) {
+      moveOrganism(o);
+    }
+  }
 
-    ThreadStartIndexes.adjust(shortestIndex, shortestNanos, longestIndex, longestNanos);
+  /**
+   * Returns how unbalanced the work of the threads was in the last frame split in vertical lines:
+   * the time of the slowest thread divided by the average time of a thread, without the time
+   * spent waiting for locks. 1 means perfect balance.
+   */
+  public static double getImbalance() {
+    return imbalance;
   }
 
   /**
    * Progresses all organisms in a vertical line of buckets in organismBuckets.
    * This will be called by WorkerJob, and it should be thread safe.
-   * Organisms will be added to checkedOrganisms as they are processed,
+   * Organisms are claimed for the current frame as they are processed,
    * so that they will not be processed again.
    *
    * @param index the x index of the buckets that we need to process.
    */
   static void progressLineInBucket(final int index) {
+    long start = System.nanoTime();
+    int organismCount = 0;
+    int segmentCount = 0;
     for (int y = 0; y <= organismBuckets.getMaxHeight(); y++) {
-      Collection<Organism> bucket = organismBuckets.getBucket(index, y);
-      for (Organism o : bucket) {
-        synchronized (checkedOrganisms) {
-          if (!checkedOrganisms.add(o)) {
-            continue;
-          }
+      for (Organism o : organismBuckets.getBucket(index, y)) {
+        if (progressOrganism(o)) {
+          organismCount++;
+          segmentCount += o.getSegments();
         }
-        if (!o.move()) {
-          organisms.remove(o);
-          if (visibleWorld.getSelectedOrganism() == o) {
-            visibleWorld.setSelectedOrganism(null);
-          }
+      }
+    }
+    LineCosts.record(index, System.nanoTime() - start, organismCount, segmentCount);
+  }
+
+  /**
+   * Progresses all organisms in a tile of buckets in organismBuckets.
+   * This will be called by TileScheduler, and it should be thread safe.
+   *
+   * @param startX the x index of the first column of the tile
+   * @param endX the x index of the last column of the tile
+   * @param startY the y index of the first row of the tile
+   * @param endY the y index of the last row of the tile
+   */
+  static void progressTile(int startX, int endX, int startY, int endY) {
+    for (int x = startX; x <= endX; x++) {
+      for (int y = startY; y <= endY; y++) {
+        for (Organism o : organismBuckets.getBucket(x, y)) {
+          progressOrganism(o);
         }
       }
     }
   }
+
+  /**
+   * Progresses one organism, unless it was already processed in this frame.
+   *
+   * @return true if the organism was progressed now
+   */
+  private static boolean progressOrganism(Organism o) {
+    if (!o.claimFrame(frame)) {
+      return false;
+    }
+    moveOrganism(o);
+    return true;
+  }
+
+  /**
+   * Moves one organism. The changes it makes to the rest of the world are posted to the event
+   * bus and committed at the end of the frame in the order of the store, see WorldEventBus.
+   * If the organism has to be removed from the world, it is taken out of the spatial index
+   * right away, so it can't be hit by others in this frame, and out of the store at the end
+   * of the frame.
+   */
+  private static void moveOrganism(Organism o) {
+    events.enterOrganism(o);
+    if (!o.move()) {
+      events.organismRemoved(o);
+      organismBuckets.remove(o);
+      if (visibleWorld.getSelectedOrganism() == o) {
+        visibleWorld.setSelectedOrganism(null);
+      }
+    }
+    events.exitOrganism();
+  }
 }
@@ -0,0 +1,19 @@
+package biogenesis.parallel_executor;
+
+/**
+ * The ways {@link ParallelExecutor} can split the work of a frame between threads.
+ */
+public enum ParallelSchedulerType {
+  /**
+   * One range of vertical lines per {@link WorkerThread}, locked line by line with
+   * {@link LinesLocker}. The ranges are rebalanced by {@link ThreadStartIndexes} from frame
+   * to frame.
+   */
+  STRIPS,
+  /**
+   * Square tiles coloured in independent phases, run on a work-stealing pool by
+   * {@link TileScheduler}. The load is balanced within every phase of the frame.
+   */
+  TILES,
+  ;
+}
@@ -11,6 +11,24 @@ public class ThreadStartIndexes {
    */
   public static final int MIN_RANGE_SIZE = 5;
 
+  /**
+   * The number of lines of buckets kept between two lines that threads process at the same
+   * time: WorkerJob keeps this many locked on each side, and TileScheduler keeps a whole tile,
+   * which is wider.
+   */
+  public static final int LINES_BETWEEN_THREADS = MIN_RANGE_SIZE - 1;
+
+  /**
+   * Returns the smallest bucket size that keeps threads apart around an organism: it may not
+   * span more than the lines kept between two threads, or two threads could touch it at the same
+   * time. Bigger organisms are left to ParallelExecutor.reserveOutliers.
+   *
+   * @param maxExtent the width or height of the organism, in pixels
+   */
+  public static int minBucketSize(int maxExtent) {
+    return (maxExtent + LINES_BETWEEN_THREADS - 1) / LINES_BETWEEN_THREADS;
+  }
+
   /**
    * The start indexes for the threads.
    * The array is one bigger than threadCount to avoid `if`.
@@ -69,6 +87,68 @@ public class ThreadStartIndexes {
     }
   }
 
+  /**
+   * Recalculates all the ranges from an estimation of the cost of every line, so that every
+   * thread gets about the same total cost. The boundaries are put where the prefix sum of the
+   * costs is closest to an equal share, and then moved to keep every range at least
+   * MIN_RANGE_SIZE long.
+   * If there is no cost at all, the ranges are left as they are.
+   *
+   * @param lineCosts the estimated cost of every line, lineCount elements
+   */
+  public static void partition(double[] lineCosts) {
+    double[] prefixSums = getPrefixSums(lineCosts);
+    double total = prefixSums[lineCount];
+    if (total <= 0) {
+      return;
+    }
+
+    int line = 0;
+    for (int i = 1; i < threadCount; i++) {
+      double target = total * i / threadCount;
+      while (line < lineCount && prefixSums[line + 1] < target) {
+        line++;
+      }
+      // the boundary is either before or after the line where the target is crossed
+      int start = target - prefixSums[line] < prefixSums[line + 1] - target ? line : line + 1;
+      int lowest = startIndexes[i - 1] + MIN_RANGE_SIZE;
+      int highest = lineCount - (threadCount - i) * MIN_RANGE_SIZE;
+      startIndexes[i] = Math.max(lowest, Math.min(highest, start));
+    }
+  }
+
+  /**
+   * Returns how unbalanced the current ranges are for the given line costs: the cost of the
+   * most expensive range divided by the average cost of a range. 1 means perfect balance,
+   * threadCount means that a single thread did all the work.
+   *
+   * @param lineCosts the cost of every line, lineCount elements
+   */
+  public static double getImbalance(double[] lineCosts) {
+    double[] prefixSums = getPrefixSums(lineCosts);
+    double total = prefixSums[lineCount];
+    if (total <= 0) {
+      return 1;
+    }
+    double max = 0;
+    for (int i = 0; i < threadCount; i++) {
+      max = Math.max(max, prefixSums[startIndexes[i + 1]] - prefixSums[startIndexes[i]]);
+    }
+    return max * threadCount / total;
+  }
+
+  /**
+   * Returns the prefix sums of the line costs: element i is the total cost of the lines before
+   * line i.
+   */
+  private static double[] getPrefixSums(double[] lineCosts) {
+    double[] prefixSums = new double[lineCount + 1];
+    for (int i = 0; i < lineCount; i++) {
+      prefixSums[i + 1] = prefixSums[i] + lineCosts[i];
+    }
+    return prefixSums;
+  }
+
   private static int getRangeSize(int threadIndex) {
     return getEndIndex(threadIndex) - getStartIndex(threadIndex) + 1;
   }
@@ -0,0 +1,188 @@
+package biogenesis.parallel_executor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import biogenesis.FrameTile;
+
+/**
+ * TileScheduler progresses the organisms in square tiles of buckets, using a work-stealing pool.
+ *
+ * The tiles are coloured like a checkerboard in 4 phases, depending on whether their x and y tile
+ * coordinates are even or odd. Two tiles of the same phase are always separated by a whole tile,
+ * so they can be processed in parallel without locks. Phases are run one after the other.
+ * Threads that run out of tiles steal them from the busy ones, so the load is balanced within
+ * the frame instead of over the next frames.
+ */
+public class TileScheduler {
+  /**
+   * The side of a tile, in buckets. Lines of two tiles in the same phase are at least
+   * TILE_SIZE + 1 apart, which is the same gap that LinesLocker keeps between two lines
+   * processed at the same time by STRIPS.
+   */
+  public static final int TILE_SIZE = 2 * ThreadStartIndexes.LINES_BETWEEN_THREADS;
+
+  /**
+   * The number of phases. Tile (x, y) is in phase (x % 2) + 2 * (y % 2).
+   */
+  public static final int PHASE_COUNT = 4;
+
+  private static ForkJoinPool pool;
+
+  /**
+   * Returns true if the grid has enough tiles for some of them to run in parallel.
+   *
+   * @param columnCount the number of columns of buckets
+   * @param rowCount the number of rows of buckets
+   */
+  public static boolean canRunInParallel(int columnCount, int rowCount) {
+    return getTileCount(columnCount) > 2 || getTileCount(rowCount) > 2;
+  }
+
+  /**
+   * Returns the tiles of the given phase, as {startColumn, endColumn, startRow, endRow},
+   * all inclusive.
+   *
+   * @param phase the phase, between 0 and PHASE_COUNT - 1
+   * @param columnCount the number of columns of buckets
+   * @param rowCount the number of rows of buckets
+   */
+  public static List<int[]> getPhaseTiles(int phase, int columnCount, int rowCount) {
+    List<int[]> tiles = new ArrayList<>();
+    for (int tx = phase % 2; tx < getTileCount(columnCount); tx += 2) {
+      for (int ty = phase / 2; ty < getTileCount(rowCount); ty += 2) {
+        tiles.add(new int[] {
+            tx * TILE_SIZE, Math.min((tx + 1) * TILE_SIZE, columnCount) - 1,
+            ty * TILE_SIZE, Math.min((ty + 1) * TILE_SIZE, rowCount) - 1,
+        });
+      }
+    }
+    return tiles;
+  }
+
+  /**
+   * Progresses all organisms in the grid, phase by phase. Returns when all of them are done.
+   *
+   * @param threadCount the number of threads of the pool
+   * @param columnCount the number of columns of buckets
+   * @param rowCount the number of rows of buckets
+   */
+  static void progressAllTiles(int threadCount, int columnCount, int rowCount) {
+    ForkJoinPool pool = getPool(threadCount);
+    for (int phase = 0; phase < PHASE_COUNT; phase++) {
+      List<int[]> tiles = getPhaseTiles(phase, columnCount, rowCount);
+      pool.invoke(new TilesTask(tiles, null, 0, tiles.size()));
+    }
+  }
+
+  /**
+   * Progresses all organisms in the grid, phase by phase, giving every tile its own FrameTile,
+   * so that the results are the same with any number of threads. With a single thread the tiles
+   * are progressed in the calling thread, in the same order.
+   *
+   * @param threadCount the number of threads of the pool
+   * @param columnCount the number of columns of buckets
+   * @param rowCount the number of rows of buckets
+   * @param frameSeed the seed of the random streams of the tiles
+   * @param lastTile work to run after all tiles, in the calling thread with a FrameTile of its
+   *     own that comes after the others, or null if there is none
+   * @return the FrameTiles of all tiles, in the order their changes must be applied
+   */
+  static List<FrameTile> progressAllTilesInOrder(int threadCount, int columnCount, int rowCount, long frameSeed,
+      Runnable lastTile) {
+    List<List<int[]>> phases = new ArrayList<>();
+    int tileCount = 0;
+    for (int phase = 0; phase < PHASE_COUNT; phase++) {
+      phases.add(getPhaseTiles(phase, columnCount, rowCount));
+      tileCount += phases.get(phase).size();
+    }
+    int frameTileCount = lastTile == null ? tileCount : tileCount + 1;
+    List<FrameTile> frameTiles = new ArrayList<>(frameTileCount);
+    for (int i = 0; i < frameTileCount; i++) {
+      frameTiles.add(new FrameTile(frameSeed, i, frameTileCount));
+    }
+
+    int first = 0;
+    for (List<int[]> tiles : phases) {
+      List<FrameTile> phaseFrameTiles = frameTiles.subList(first, first + tiles.size());
+      if (threadCount > 1) {
+        getPool(threadCount).invoke(new TilesTask(tiles, phaseFrameTiles, 0, tiles.size()));
+      } else {
+        for (int i = 0; i < tiles.size(); i++) {
+          progressTile(tiles.get(i), phaseFrameTiles.get(i));
+        }
+      }
+      first += tiles.size();
+    }
+    if (lastTile != null) {
+      FrameTile frameTile = frameTiles.get(tileCount);
+      frameTile.enter();
+      try {
+        lastTile.run();
+      } finally {
+        frameTile.exit();
+      }
+    }
+    return frameTiles;
+  }
+
+  private static ForkJoinPool getPool(int threadCount) {
+    if (pool == null || pool.getParallelism() != threadCount) {
+      if (pool != null) {
+        pool.shutdown();
+      }
+      pool = new ForkJoinPool(threadCount);
+    }
+    return pool;
+  }
+
+  private static void progressTile(int[] tile, FrameTile frameTile) {
+    if (frameTile == null) {
+      ParallelExecutor.progressTile(tile[0], tile[1], tile[2], tile[3]);
+      return;
+    }
+    frameTile.enter();
+    try {
+      ParallelExecutor.progressTile(tile[0], tile[1], tile[2], tile[3]);
+    } finally {
+      frameTile.exit();
+    }
+  }
+
+  private static int getTileCount(int bucketCount) {
+    return (bucketCount + TILE_SIZE - 1) / TILE_SIZE;
+  }
+
+  /**
+   * Progresses the tiles from 'from' (inclusive) to 'to' (exclusive), splitting the range in
+   * halves so that idle threads can steal them. frameTiles, if not null, has the FrameTile of
+   * every tile.
+   */
+  private static class TilesTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final List<int[]> tiles;
+    private final List<FrameTile> frameTiles;
+    private final int from;
+    private final int to;
+
+    TilesTask(List<int[]> tiles, List<FrameTile> frameTiles, int from, int to) {
+      this.tiles = tiles;
+      this.frameTiles = frameTiles;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from == 1) {
+        progressTile(tiles.get(from), frameTiles == null ? null : frameTiles.get(from));
+      } else if (to - from > 1) {
+        int middle = (from + to) >>> 1;
+        invokeAll(new TilesTask(tiles, frameTiles, from, middle), new TilesTask(tiles, frameTiles, middle, to));
+      }
+    }
+  }
+}
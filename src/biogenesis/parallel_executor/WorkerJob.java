@@ -5,7 +5,7 @@ package biogenesis.parallel_executor;
  * lines in the OrganismBuckets.
  */
 class WorkerJob {
-  private static final int RANGE_TO_CLEAR = ThreadStartIndexes.MIN_RANGE_SIZE - 1;
+  private static final int RANGE_TO_CLEAR = ThreadStartIndexes.LINES_BETWEEN_THREADS;
 
   private final int startIndex;
   private final int endIndex;
@@ -5,7 +5,9 @@ import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
+  LineCostsTest.class,
   ThreadStartIndexesTest.class,
+  TileSchedulerTest.class,
 })
 public class AllTests {
 }
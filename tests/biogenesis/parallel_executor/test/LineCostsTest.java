@@ -0,0 +1,44 @@
+package biogenesis.parallel_executor.test;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import biogenesis.parallel_executor.LineCosts;
+
+public class LineCostsTest {
+  @Before
+  public void setUp() {
+    LineCosts.clear();
+  }
+
+  @Test
+  public void testEstimateAveragesTimeAndSegments() {
+    LineCosts.initialize(4);
+    LineCosts.record(0, 1000, 2, 10);
+    LineCosts.record(1, 3000, 3, 10);
+    LineCosts.record(3, 4000, 5, 20);
+    // 8000 nanos for 40 segments: 200 nanos per segment
+    assertArrayEquals(new double[] {1500, 2500, 0, 4000}, LineCosts.estimate(), 1e-9);
+    assertArrayEquals(new double[] {1000, 3000, 0, 4000}, LineCosts.getNanos(), 1e-9);
+    assertArrayEquals(new int[] {2, 3, 0, 5}, LineCosts.getOrganisms());
+  }
+
+  @Test
+  public void testEstimateWithoutSegments() {
+    LineCosts.initialize(3);
+    LineCosts.record(1, 500, 0, 0);
+    assertArrayEquals(new double[] {0, 500, 0}, LineCosts.estimate(), 1e-9);
+  }
+
+  @Test
+  public void testInitializeKeepsCostsOfTheSameLineCount() {
+    LineCosts.initialize(3);
+    LineCosts.record(2, 700, 1, 4);
+    LineCosts.initialize(3);
+    assertArrayEquals(new double[] {0, 0, 700}, LineCosts.getNanos(), 1e-9);
+    LineCosts.initialize(2);
+    assertArrayEquals(new double[] {0, 0}, LineCosts.getNanos(), 1e-9);
+  }
+}
@@ -1,6 +1,7 @@
 package biogenesis.parallel_executor.test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -20,6 +21,18 @@ public class ThreadStartIndexesTest {
     assertThreadEndIndexes(24, 49, 74, 99);
   }
 
+  @Test
+  public void testMinBucketSizeKeepsTheBiggestOrganismBetweenThreads() {
+    assertEquals(70, ThreadStartIndexes.minBucketSize(280));
+    assertEquals(16, ThreadStartIndexes.minBucketSize(62));
+    assertEquals(0, ThreadStartIndexes.minBucketSize(0));
+    for (int extent = 1; extent < 2000; extent++) {
+      int bucketSize = ThreadStartIndexes.minBucketSize(extent);
+      assertTrue(bucketSize * ThreadStartIndexes.LINES_BETWEEN_THREADS >= extent);
+      assertTrue((bucketSize - 1) * ThreadStartIndexes.LINES_BETWEEN_THREADS < extent);
+    }
+  }
+
   @Test
   public void testAdjust_shortest3_longest0() {
     ThreadStartIndexes.initialize(4, 100);
@@ -83,6 +96,68 @@ public class ThreadStartIndexesTest {
     assertThreadStartIndexes(0, 15, 20, 25, 30);
   }
 
+  @Test
+  public void testPartition_uniformCosts() {
+    ThreadStartIndexes.initialize(4, 100);
+    ThreadStartIndexes.adjust(0, 100, 3, 200);
+    ThreadStartIndexes.partition(costs(100, 0, 100, 1));
+    assertThreadStartIndexes(0, 25, 50, 75, 100);
+  }
+
+  @Test
+  public void testPartition_clusteredCosts() {
+    ThreadStartIndexes.initialize(4, 100);
+    double[] costs = costs(100, 0, 100, 1);
+    for (int i = 60; i < 80; i++) {
+      costs[i] = 13;
+    }
+    // total is 80 + 20 * 13 = 340, 85 per thread
+    ThreadStartIndexes.partition(costs);
+    assertThreadStartIndexes(0, 62, 68, 75, 100);
+    // the ranges cost 86, 78, 91 and 85
+    assertEquals(91.0 / 85, ThreadStartIndexes.getImbalance(costs), 1e-9);
+  }
+
+  @Test
+  public void testPartition_minRangeSize() {
+    ThreadStartIndexes.initialize(4, 30);
+    ThreadStartIndexes.partition(costs(30, 10, 12, 1));
+    assertThreadStartIndexes(0, 11, 16, 21, 30);
+    ThreadStartIndexes.partition(costs(30, 0, 2, 1));
+    assertThreadStartIndexes(0, 5, 10, 15, 30);
+    ThreadStartIndexes.partition(costs(30, 28, 30, 1));
+    assertThreadStartIndexes(0, 15, 20, 25, 30);
+  }
+
+  @Test
+  public void testPartition_noCosts() {
+    ThreadStartIndexes.initialize(4, 100);
+    ThreadStartIndexes.adjust(0, 100, 3, 200);
+    ThreadStartIndexes.partition(new double[100]);
+    assertThreadStartIndexes(0, 26, 51, 76, 100);
+  }
+
+  @Test
+  public void testGetImbalance() {
+    ThreadStartIndexes.initialize(4, 100);
+    assertEquals(1.0, ThreadStartIndexes.getImbalance(costs(100, 0, 100, 1)), 1e-9);
+    assertEquals(4.0, ThreadStartIndexes.getImbalance(costs(100, 0, 25, 1)), 1e-9);
+    assertEquals(2.0, ThreadStartIndexes.getImbalance(costs(100, 20, 30, 1)), 1e-9);
+    assertEquals(1.0, ThreadStartIndexes.getImbalance(new double[100]), 1e-9);
+  }
+
+  /**
+   * Returns the costs of lineCount lines, with the given cost from 'from' (inclusive) to 'to'
+   * (exclusive), and 0 everywhere else.
+   */
+  private double[] costs(int lineCount, int from, int to, double cost) {
+    double[] costs = new double[lineCount];
+    for (int i = from; i < to; i++) {
+      costs[i] = cost;
+    }
+    return costs;
+  }
+
   private void assertThreadStartIndexes(int ... expected) {
     for (int i = 0; i < expected.length; i++) {
       assertEquals(expected[i], ThreadStartIndexes.getStartIndex(i));
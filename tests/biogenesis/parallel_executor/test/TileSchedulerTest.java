@@ -0,0 +1,59 @@
+package biogenesis.parallel_executor.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import biogenesis.parallel_executor.TileScheduler;
+
+public class TileSchedulerTest {
+  @Test
+  public void testEveryBucketIsInOneTile() {
+    int columnCount = 5 * TileScheduler.TILE_SIZE + 3;
+    int rowCount = 2 * TileScheduler.TILE_SIZE + 1;
+    int[][] count = new int[columnCount][rowCount];
+    for (int phase = 0; phase < TileScheduler.PHASE_COUNT; phase++) {
+      for (int[] tile : TileScheduler.getPhaseTiles(phase, columnCount, rowCount)) {
+        for (int x = tile[0]; x <= tile[1]; x++) {
+          for (int y = tile[2]; y <= tile[3]; y++) {
+            count[x][y]++;
+          }
+        }
+      }
+    }
+    for (int x = 0; x < columnCount; x++) {
+      for (int y = 0; y < rowCount; y++) {
+        assertEquals("bucket " + x + "," + y, 1, count[x][y]);
+      }
+    }
+  }
+
+  @Test
+  public void testTilesInTheSamePhaseAreSeparated() {
+    int columnCount = 7 * TileScheduler.TILE_SIZE;
+    int rowCount = 6 * TileScheduler.TILE_SIZE + 2;
+    for (int phase = 0; phase < TileScheduler.PHASE_COUNT; phase++) {
+      List<int[]> tiles = TileScheduler.getPhaseTiles(phase, columnCount, rowCount);
+      for (int[] a : tiles) {
+        for (int[] b : tiles) {
+          if (a != b) {
+            int gapX = Math.max(b[0] - a[1], a[0] - b[1]);
+            int gapY = Math.max(b[2] - a[3], a[2] - b[3]);
+            assertTrue(Math.max(gapX, gapY) > TileScheduler.TILE_SIZE);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testCanRunInParallel() {
+    assertFalse(TileScheduler.canRunInParallel(2 * TileScheduler.TILE_SIZE, 2 * TileScheduler.TILE_SIZE));
+    assertTrue(TileScheduler.canRunInParallel(2 * TileScheduler.TILE_SIZE + 1, 1));
+    assertTrue(TileScheduler.canRunInParallel(1, 3 * TileScheduler.TILE_SIZE));
+  }
+}
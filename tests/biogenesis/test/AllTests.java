@@ -6,6 +6,18 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
   BioFileTest.class,
+  CladeRegistryTest.class,
+  CladeTableTest.class,
+  FlatOrganismBucketsTest.class,
+  FrameTileTest.class,
+  KinematicStoreTest.class,
+  MethodSizeTest.class,
+  MutationTrialsTest.class,
+  OrganismPoolTest.class,
+  OrganismStoreTest.class,
+  RandomSourceTest.class,
+  SegmentsTest.class,
+  WorldEventBusTest.class,
 })
 public class AllTests {
 }
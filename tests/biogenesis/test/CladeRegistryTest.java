@@ -0,0 +1,74 @@
+package biogenesis.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import biogenesis.CladeRegistry;
+
+public class CladeRegistryTest {
+  @Test
+  public void testThresholdCountsFollowAddAndRemove() {
+    CladeRegistry registry = new CladeRegistry();
+    List<CladeRegistry.Entry> big = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      big.add(registry.add(1));
+    }
+    for (int i = 0; i < 10; i++) {
+      registry.add(2);
+    }
+    CladeRegistry.Entry single = registry.add(3);
+    assertEquals(3, registry.getDistinctCladeCount(1));
+    assertEquals(2, registry.getDistinctCladeCount(10));
+    assertEquals(1, registry.getDistinctCladeCount(100));
+    assertEquals(2, registry.getDistinctCladeCount(5));
+
+    registry.remove(big.get(0));
+    registry.remove(single);
+    assertEquals(2, registry.getDistinctCladeCount(1));
+    assertEquals(2, registry.getDistinctCladeCount(10));
+    assertEquals(0, registry.getDistinctCladeCount(100));
+    assertEquals(99, registry.getPopulation(1));
+    assertEquals(0, registry.getPopulation(3));
+    assertArrayEquals(new int[] {1, 2}, registry.getClades());
+  }
+
+  @Test
+  public void testHistoryStartsWhenTheCladeAppears() {
+    CladeRegistry registry = new CladeRegistry();
+    registry.add(1);
+    registry.sample(1);
+    registry.add(1);
+    CladeRegistry.Entry young = registry.add(2);
+    registry.sample(2);
+    registry.remove(young);
+    registry.add(2);
+    registry.sample(3);
+
+    assertArrayEquals(new long[] {1, 2, 3}, registry.getSampleTimes());
+    assertArrayEquals(new int[] {1, 2, 2}, registry.getPopulationHistory(1));
+    assertArrayEquals(new int[] {1}, registry.getPopulationHistory(2));
+  }
+
+  @Test
+  public void testHistoryKeepsTheLastSamples() {
+    CladeRegistry registry = new CladeRegistry();
+    CladeRegistry.Entry entry = null;
+    for (int i = 0; i < CladeRegistry.HISTORY_LENGTH + 10; i++) {
+      entry = registry.add(1);
+      registry.sample(i);
+    }
+    long[] times = registry.getSampleTimes();
+    int[] populations = registry.getPopulationHistory(1);
+    assertEquals(CladeRegistry.HISTORY_LENGTH, times.length);
+    assertEquals(10, times[0]);
+    assertEquals(11, populations[0]);
+    assertEquals(CladeRegistry.HISTORY_LENGTH + 10, populations[populations.length - 1]);
+    registry.remove(entry);
+    assertEquals(CladeRegistry.HISTORY_LENGTH + 9, registry.getPopulation(1));
+  }
+}
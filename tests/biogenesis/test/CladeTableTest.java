@@ -0,0 +1,63 @@
+package biogenesis.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.Test;
+
+import biogenesis.CladeTable;
+import biogenesis.GeneticCode;
+
+public class CladeTableTest {
+  @Test
+  public void testSplitsBuildTheId() {
+    int root = CladeTable.parse("user:12");
+    int a = CladeTable.split(root, '+', 0, 0x1f);
+    int b = CladeTable.split(a, (char) 0, 2, 0x3);
+    int c = CladeTable.split(b, '#', 1, 0xabc);
+    assertEquals("user:12+1f", CladeTable.toString(a));
+    assertEquals("user:12+1f||3", CladeTable.toString(b));
+    assertEquals("user:12+1f||3#|abc", CladeTable.toString(c));
+    assertEquals(5, CladeTable.getSplitCount(c));
+    assertEquals(b, CladeTable.getParent(c));
+    assertNull(CladeTable.toString(CladeTable.NONE));
+  }
+
+  @Test
+  public void testParsedIdsAreWrittenBackTheSame() {
+    String[] ids = {"5", "a-b:7-2>3<4|5=6#||7", "12+", "3|0a+FF*x", "name:with:colons:9", "", ":", "1+1+1"};
+    for (String id : ids) {
+      assertEquals(id, CladeTable.toString(CladeTable.parse(id)));
+    }
+    assertEquals(2, CladeTable.getSplitCount(CladeTable.parse("3|0a+FF*x")));
+  }
+
+  @Test
+  public void testEqualIdsGetTheSameNumber() {
+    int size = CladeTable.getSize();
+    int a = CladeTable.parse("77+1|2");
+    assertEquals(size + 3, CladeTable.getSize());
+    assertEquals(a, CladeTable.parse("77+1|2"));
+    assertEquals(CladeTable.getParent(a), CladeTable.parse("77+1"));
+    assertEquals(size + 3, CladeTable.getSize());
+  }
+
+  @Test
+  public void testGeneticCodesAreSavedWithTheirId() throws Exception {
+    GeneticCode code = new GeneticCode();
+    code.setcladeID("9>2|4");
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ObjectOutputStream out = new ObjectOutputStream(bytes);
+    out.writeObject(code);
+    out.close();
+    ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    GeneticCode read = (GeneticCode) in.readObject();
+    assertEquals("9>2|4", read.getcladeID());
+    assertEquals(code.getClade(), read.getClade());
+  }
+}
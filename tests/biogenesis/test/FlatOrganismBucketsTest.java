@@ -0,0 +1,48 @@
+package biogenesis.test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import biogenesis.FlatOrganismBuckets;
+import biogenesis.Organism;
+import biogenesis.OrganismStore;
+import biogenesis.World;
+import biogenesis.test.TestWorlds.TestOrganism;
+
+public class FlatOrganismBucketsTest {
+  @Test
+  public void testOrganismsAreFoundWhereTheyMovedDuringTheFrame() {
+    World world = TestWorlds.newWorld();
+    OrganismStore store = new OrganismStore();
+    FlatOrganismBuckets index = new FlatOrganismBuckets(1000, 1000, 50);
+    Organism moving = new TestOrganism(world, 1);
+    moving.setBounds(10, 10, 20, 20);
+    assertTrue(store.add(moving));
+    index.prepareFrame(store);
+
+    Organism probe = new TestOrganism(world, 2);
+    probe.setBounds(500, 500, 20, 20);
+    assertNull(index.findFirst(probe, o -> o == moving));
+
+    moving.setBounds(505, 505, 20, 20);
+    store.record(moving);
+    index.update(moving);
+    assertSame(moving, index.findFirst(probe, o -> o == moving));
+    assertTrue(index.getBucket(10, 10).contains(moving));
+
+    // Removing it takes it out of the old and the new buckets
+    index.remove(moving);
+    assertNull(index.findFirst(probe, o -> o == moving));
+    probe.setBounds(10, 10, 20, 20);
+    assertNull(index.findFirst(probe, o -> o == moving));
+
+    // The next frame finds it only at its new position
+    index.prepareFrame(store);
+    assertTrue(index.getBucket(10, 10).contains(moving));
+    assertFalse(index.getBucket(0, 0).contains(moving));
+  }
+}
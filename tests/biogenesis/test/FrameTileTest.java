@@ -0,0 +1,119 @@
+package biogenesis.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import biogenesis.FrameTile;
+import biogenesis.Organism;
+import biogenesis.SimulationRandom;
+import biogenesis.SplitMixRandom;
+import biogenesis.Utils;
+import biogenesis.World;
+
+public class FrameTileTest {
+  private final boolean deterministic = Utils.DETERMINISTIC;
+  private final int threadCount = Utils.THREAD_COUNT;
+  private final int worldWidth = Utils.WORLD_WIDTH;
+  private final int worldHeight = Utils.WORLD_HEIGHT;
+  private final int initialOrganisms = Utils.INITIAL_ORGANISMS;
+
+  @After
+  public void tearDown() {
+    FrameTile.setActive(false);
+    Utils.DETERMINISTIC = deterministic;
+    Utils.THREAD_COUNT = threadCount;
+    Utils.WORLD_WIDTH = worldWidth;
+    Utils.WORLD_HEIGHT = worldHeight;
+    Utils.INITIAL_ORGANISMS = initialOrganisms;
+  }
+
+  @Test
+  public void testTileStreamsDontDependOnTheOrder() {
+    SimulationRandom random = new SimulationRandom(1);
+    FrameTile.setActive(true);
+
+    int[] inOrder = new int[4];
+    FrameTile a = new FrameTile(42, 0, 2);
+    FrameTile b = new FrameTile(42, 1, 2);
+    a.enter();
+    inOrder[0] = random.nextInt(1000);
+    inOrder[1] = random.nextInt(1000);
+    a.exit();
+    b.enter();
+    inOrder[2] = random.nextInt(1000);
+    inOrder[3] = random.nextInt(1000);
+    b.exit();
+
+    int[] interleaved = new int[4];
+    a = new FrameTile(42, 0, 2);
+    b = new FrameTile(42, 1, 2);
+    b.enter();
+    interleaved[2] = random.nextInt(1000);
+    b.exit();
+    a.enter();
+    interleaved[0] = random.nextInt(1000);
+    a.exit();
+    b.enter();
+    interleaved[3] = random.nextInt(1000);
+    b.exit();
+    a.enter();
+    interleaved[1] = random.nextInt(1000);
+    a.exit();
+
+    assertArrayEquals(inOrder, interleaved);
+  }
+
+  @Test
+  public void testOutsideOfTilesTheSeededStreamIsUsed() {
+    SimulationRandom random = new SimulationRandom(7);
+    SplitMixRandom expected = new SplitMixRandom(7);
+    FrameTile.setActive(true);
+    FrameTile tile = new FrameTile(42, 0, 1);
+    tile.enter();
+    random.nextInt();
+    tile.exit();
+    assertEquals(expected.nextInt(), random.nextInt());
+    assertEquals(expected.nextDouble(), random.nextDouble(), 0);
+  }
+
+  @Test
+  public void testSeededWorldsDontDependOnTheThreadCount() {
+    Utils.DETERMINISTIC = true;
+    Utils.WORLD_WIDTH = 1000;
+    Utils.WORLD_HEIGHT = 1000;
+    Utils.INITIAL_ORGANISMS = 200;
+    List<String> serial = runSeededWorld(1);
+    assertTrue(serial.size() > 100);
+    assertEquals(serial, runSeededWorld(4));
+  }
+
+  /**
+   * Runs a world from a fixed seed with the given number of threads and returns the state of
+   * its atmosphere and of every organism, ordered by identification number.
+   */
+  private static List<String> runSeededWorld(int threads) {
+    Utils.THREAD_COUNT = threads;
+    Utils.random.setSeed(3);
+    World world = TestWorlds.newWorld();
+    world.genesis();
+    for (int i = 0; i < 150; i++) {
+      world.time();
+    }
+    List<String> organisms = new ArrayList<>();
+    for (Organism o : world.getOrganismsSnapshot()) {
+      organisms.add(String.format("%08d %d,%d %dx%d %a", o.getID(), o.x, o.y, o.width, o.height, o.getEnergy()));
+    }
+    Collections.sort(organisms);
+    organisms.add(0, String.format("O2 %a CO2 %a CO %a CH4 %a detritus %a", world.getO2(), world.getCO2(),
+        world.getCO1(), world.getCH4(), world.getDetritus()));
+    return organisms;
+  }
+}
@@ -0,0 +1,51 @@
+package biogenesis.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.awt.Rectangle;
+import java.util.Random;
+
+import org.junit.Test;
+
+import biogenesis.KinematicStore;
+
+public class KinematicStoreTest {
+  @Test
+  public void testGrowingKeepsTheValues() {
+    KinematicStore store = new KinematicStore();
+    store.ensureCapacity(2);
+    store.set(1, 10.5, 20.5, 5, 6, 16, 36);
+    store.ensureCapacity(100);
+    assertEquals(100, store.getCapacity());
+    assertEquals(10.5, store.getCenterX(1), 0);
+    assertEquals(20.5, store.getCenterY(1), 0);
+    assertEquals(5, store.getMinX(1));
+    assertEquals(36, store.getMaxY(1));
+  }
+
+  @Test
+  public void testIntersectsLikeRectangles() {
+    Random random = new Random(1);
+    KinematicStore store = new KinematicStore();
+    store.ensureCapacity(1);
+    for (int i = 0; i < 10000; i++) {
+      Rectangle a = new Rectangle(random.nextInt(50), random.nextInt(50), random.nextInt(20), random.nextInt(20));
+      Rectangle b = new Rectangle(random.nextInt(50), random.nextInt(50), random.nextInt(20), random.nextInt(20));
+      store.set(0, 0, 0, a.x, a.y, a.x + a.width, a.y + a.height);
+      assertEquals(a + " " + b, a.intersects(b), store.intersects(0, b.x, b.y, b.width, b.height));
+    }
+  }
+
+  @Test
+  public void testMortonOrderVisitsQuadrantsInZOrder() {
+    KinematicStore store = new KinematicStore();
+    store.ensureCapacity(6);
+    double[][] centers = {{15, 15}, {5, 15}, {15, 5}, {5, 5}, {25, 5}, {6, 6}};
+    for (int i = 0; i < centers.length; i++) {
+      store.set(i, centers[i][0], centers[i][1], 0, 0, 0, 0);
+    }
+    // (0,0) cell in the order of the slots, then (1,0), (0,1), (1,1) and (2,0)
+    assertArrayEquals(new int[] {3, 5, 2, 1, 0, 4}, store.mortonOrder(6, 10));
+  }
+}
@@ -0,0 +1,149 @@
+package biogenesis.test;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * HotSpot refuses to JIT compile methods with more than 8000 bytes of bytecode
+ * (-XX:-DontCompileHugeMethods), so a huge method in the simulation core runs
+ * interpreted forever. This test reads the compiled classes and fails if any
+ * of their methods grows over the limit.
+ */
+public class MethodSizeTest {
+  private static final int HUGE_METHOD_LIMIT = 8000;
+
+  private static final String[] SIMULATION_CORE = {
+      "biogenesis.Organism",
+      "biogenesis.World",
+      "biogenesis.GeneticCode",
+      "biogenesis.Gene",
+      "biogenesis.LooseOrganismGrid",
+      "biogenesis.OrganismBuckets",
+      "biogenesis.FlatOrganismBuckets",
+  };
+
+  @Test
+  public void testNoHugeMethods() throws IOException {
+    List<String> hugeMethods = new ArrayList<String>();
+    for (String className : SIMULATION_CORE) {
+      for (String method : methodsOverLimit(className)) {
+        hugeMethods.add(className + "." + method);
+      }
+    }
+    assertTrue("Methods over " + HUGE_METHOD_LIMIT + " bytes of bytecode: " + hugeMethods, hugeMethods.isEmpty());
+  }
+
+  /**
+   * Returns the name and bytecode size of the methods of the given class
+   * whose Code attribute is longer than the limit.
+   */
+  private static List<String> methodsOverLimit(String className) throws IOException {
+    String resource = "/" + className.replace('.', '/') + ".class";
+    InputStream stream = MethodSizeTest.class.getResourceAsStream(resource);
+    assertNotNull("Class file not found: " + resource, stream);
+    List<String> result = new ArrayList<String>();
+    try (DataInputStream in = new DataInputStream(stream)) {
+      in.readInt(); // magic
+      in.readUnsignedShort(); // minor version
+      in.readUnsignedShort(); // major version
+      String[] utf8 = readConstantPool(in);
+      in.readUnsignedShort(); // access flags
+      in.readUnsignedShort(); // this class
+      in.readUnsignedShort(); // super class
+      skip(in, 2 * in.readUnsignedShort()); // interfaces
+      int fields = in.readUnsignedShort();
+      for (int i = 0; i < fields; i++) {
+        skip(in, 6);
+        skipAttributes(in);
+      }
+      int methods = in.readUnsignedShort();
+      for (int i = 0; i < methods; i++) {
+        in.readUnsignedShort(); // access flags
+        String name = utf8[in.readUnsignedShort()];
+        String descriptor = utf8[in.readUnsignedShort()];
+        int attributes = in.readUnsignedShort();
+        for (int j = 0; j < attributes; j++) {
+          String attributeName = utf8[in.readUnsignedShort()];
+          int length = in.readInt();
+          if ("Code".equals(attributeName)) {
+            in.readUnsignedShort(); // max stack
+            in.readUnsignedShort(); // max locals
+            int codeLength = in.readInt();
+            if (codeLength > HUGE_METHOD_LIMIT) {
+              result.add(name + descriptor + " (" + codeLength + " bytes)");
+            }
+            skip(in, length - 8);
+          } else {
+            skip(in, length);
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Reads the constant pool, keeping only the UTF8 entries, which are the
+   * ones referenced by method and attribute names.
+   */
+  private static String[] readConstantPool(DataInputStream in) throws IOException {
+    int count = in.readUnsignedShort();
+    String[] utf8 = new String[count];
+    for (int i = 1; i < count; i++) {
+      int tag = in.readUnsignedByte();
+      switch (tag) {
+      case 1: // Utf8
+        utf8[i] = in.readUTF();
+        break;
+      case 3: // Integer
+      case 4: // Float
+      case 9: // Fieldref
+      case 10: // Methodref
+      case 11: // InterfaceMethodref
+      case 12: // NameAndType
+      case 17: // Dynamic
+      case 18: // InvokeDynamic
+        skip(in, 4);
+        break;
+      case 5: // Long
+      case 6: // Double
+        skip(in, 8);
+        i++; // takes two entries
+        break;
+      case 7: // Class
+      case 8: // String
+      case 16: // MethodType
+      case 19: // Module
+      case 20: // Package
+        skip(in, 2);
+        break;
+      case 15: // MethodHandle
+        skip(in, 3);
+        break;
+      default:
+        throw new IOException("Unknown constant pool tag " + tag);
+      }
+    }
+    return utf8;
+  }
+
+  private static void skipAttributes(DataInputStream in) throws IOException {
+    int attributes = in.readUnsignedShort();
+    for (int i = 0; i < attributes; i++) {
+      in.readUnsignedShort();
+      skip(in, in.readInt());
+    }
+  }
+
+  private static void skip(DataInputStream in, int bytes) throws IOException {
+    in.readFully(new byte[bytes]);
+  }
+}
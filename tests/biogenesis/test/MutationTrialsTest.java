@@ -0,0 +1,52 @@
+package biogenesis.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import biogenesis.MutationTrials;
+import biogenesis.SplitMixRandom;
+
+public class MutationTrialsTest {
+  @Test
+  public void testTrialsSucceedAtTheirRate() {
+    MutationTrials trials = new MutationTrials(new SplitMixRandom(4), 100);
+    int successes = 0;
+    for (int i = 0; i < 1000000; i++) {
+      if (trials.next()) {
+        successes++;
+      }
+    }
+    assertTrue(successes > 9600 && successes < 10400);
+  }
+
+  @Test
+  public void testTheSameRowInAnyGroups() {
+    MutationTrials single = new MutationTrials(new SplitMixRandom(5), 500);
+    MutationTrials grouped = new MutationTrials(new SplitMixRandom(5), 500);
+    for (int group = 0; group < 1000; group++) {
+      if (group % 3 == 0 && grouped.skip(41)) {
+        for (int i = 0; i < 41; i++) {
+          assertFalse(single.next());
+        }
+        continue;
+      }
+      long successes = grouped.next(41);
+      for (int i = 0; i < 41; i++) {
+        assertEquals((successes >>> i & 1) != 0, single.next());
+      }
+    }
+  }
+
+  @Test
+  public void testRatesAtTheLimits() {
+    MutationTrials never = new MutationTrials(new SplitMixRandom(6), 0);
+    MutationTrials always = new MutationTrials(new SplitMixRandom(6), 10000);
+    assertTrue(never.skip(1000000));
+    assertEquals(0, never.next(64));
+    assertFalse(always.skip(1));
+    assertEquals(-1L, always.next(64));
+  }
+}
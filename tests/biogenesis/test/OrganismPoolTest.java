@@ -0,0 +1,54 @@
+package biogenesis.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import biogenesis.OrganismPool;
+import biogenesis.World;
+import biogenesis.test.TestWorlds.TestOrganism;
+
+public class OrganismPoolTest {
+  @Test
+  public void testReleasedArraysWaitForTheEndOfTheNextFrame() {
+    OrganismPool pool = new OrganismPool();
+    OrganismPool.SegmentArrays arrays = pool.take(6);
+    pool.release(arrays);
+    assertNotSame(arrays, pool.take(6));
+    pool.endFrame();
+    assertNotSame(arrays, pool.take(6));
+    pool.endFrame();
+    assertSame(arrays, pool.take(6));
+    assertEquals(3, pool.getAllocated());
+    assertEquals(1, pool.getReused());
+  }
+
+  @Test
+  public void testUnusedArraysAreReusedRightAwayBySameSize() {
+    OrganismPool pool = new OrganismPool();
+    OrganismPool.SegmentArrays arrays = pool.take(4);
+    pool.releaseUnused(arrays);
+    assertNotSame(arrays, pool.take(8));
+    assertSame(arrays, pool.take(4));
+    assertEquals(4, arrays.getSize());
+  }
+
+  @Test
+  public void testRecycledOrganismsForgetTheirArrays() {
+    World world = TestWorlds.newWorld();
+    TestOrganism organism = new TestOrganism(world, 1);
+    for (Object array : organism.segmentArrays()) {
+      assertNotNull(array);
+    }
+    organism.recycle();
+    for (Object array : organism.segmentArrays()) {
+      assertNull(array);
+    }
+    // Drawing it from an old snapshot does nothing
+    organism.draw(null);
+  }
+}
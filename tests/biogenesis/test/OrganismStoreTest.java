@@ -0,0 +1,109 @@
+package biogenesis.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import biogenesis.Organism;
+import biogenesis.OrganismStore;
+import biogenesis.World;
+import biogenesis.test.TestWorlds.TestOrganism;
+
+public class OrganismStoreTest {
+  @Test
+  public void testRemovingMovesTheLastOrganismIntoTheGap() {
+    OrganismStore store = new OrganismStore();
+    Organism[] organisms = fill(TestWorlds.newWorld(), store, 5);
+    assertTrue(store.remove(organisms[1]));
+    assertFalse(store.remove(organisms[1]));
+    assertEquals(4, store.size());
+    assertSame(organisms[0], store.get(0));
+    assertSame(organisms[4], store.get(1));
+    assertSame(organisms[2], store.get(2));
+    assertSame(organisms[3], store.get(3));
+    // The moved organism knows its new place
+    assertTrue(store.contains(organisms[4]));
+    assertFalse(store.contains(organisms[1]));
+    assertTrue(store.remove(organisms[4]));
+    assertSame(organisms[3], store.get(1));
+    assertEquals(3, store.size());
+  }
+
+  @Test
+  public void testRemovingDuringAFrameWaitsForItsEnd() {
+    OrganismStore store = new OrganismStore();
+    Organism[] organisms = fill(TestWorlds.newWorld(), store, 4);
+    store.startFrame();
+    assertTrue(store.remove(organisms[0]));
+    assertTrue(store.remove(organisms[2]));
+    assertEquals(4, store.size());
+    for (int i = 0; i < organisms.length; i++) {
+      assertSame(organisms[i], store.get(i));
+    }
+    store.endFrame();
+    assertEquals(2, store.size());
+    assertFalse(store.contains(organisms[0]));
+    assertFalse(store.contains(organisms[2]));
+    assertTrue(store.contains(organisms[1]));
+    assertTrue(store.contains(organisms[3]));
+  }
+
+  @Test
+  public void testFindingByIdAfterOrganismsMoved() {
+    OrganismStore store = new OrganismStore();
+    Organism[] organisms = fill(TestWorlds.newWorld(), store, 6);
+    store.remove(organisms[0]);
+    store.remove(organisms[3]);
+    store.startFrame();
+    store.remove(organisms[5]);
+    store.endFrame();
+    assertNull(store.getById(organisms[0].getID()));
+    assertNull(store.getById(organisms[3].getID()));
+    assertNull(store.getById(organisms[5].getID()));
+    for (int i : new int[] {1, 2, 4}) {
+      assertSame(organisms[i], store.getById(organisms[i].getID()));
+    }
+  }
+
+  @Test
+  public void testSnapshotsDontChangeWithTheStore() {
+    World world = TestWorlds.newWorld();
+    OrganismStore store = new OrganismStore();
+    Organism[] organisms = fill(world, store, 3);
+    Organism[] before = store.snapshot();
+    assertArrayEquals(organisms, before);
+
+    store.startFrame();
+    store.remove(organisms[0]);
+    store.add(new TestOrganism(world, 10));
+    // During a frame the snapshot is the store at its start
+    assertSame(before, store.snapshot());
+    store.endFrame();
+    Organism[] after = store.snapshot();
+    assertArrayEquals(organisms, before);
+    assertEquals(3, after.length);
+    assertSame(organisms[1], after[1]);
+    assertFalse(store.contains(organisms[0]));
+
+    store.clear();
+    assertEquals(3, after.length);
+    assertEquals(0, store.snapshot().length);
+  }
+
+  /**
+   * Adds count new organisms to the store and returns them in the order of the store.
+   */
+  private static Organism[] fill(World world, OrganismStore store, int count) {
+    Organism[] organisms = new Organism[count];
+    for (int i = 0; i < count; i++) {
+      organisms[i] = new TestOrganism(world, i + 1);
+      assertTrue(store.add(organisms[i]));
+    }
+    return organisms;
+  }
+}
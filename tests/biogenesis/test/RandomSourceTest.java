@@ -0,0 +1,52 @@
+package biogenesis.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import biogenesis.SimulationRandom;
+import biogenesis.SplitMixRandom;
+
+public class RandomSourceTest {
+  @Test
+  public void testNextIntStaysInBounds() {
+    SplitMixRandom random = new SplitMixRandom(3);
+    int[] counts = new int[10];
+    for (int i = 0; i < 100000; i++) {
+      counts[random.nextInt(10)]++;
+      int r = random.nextInt(Integer.MAX_VALUE);
+      assertTrue(r >= 0);
+    }
+    for (int count : counts) {
+      assertTrue(count > 9000 && count < 11000);
+    }
+  }
+
+  @Test
+  public void testSameSeedGivesSameNumbers() {
+    SplitMixRandom a = new SplitMixRandom(11);
+    SplitMixRandom b = new SplitMixRandom(12);
+    b.setSeed(11);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(a.nextLong(), b.nextLong());
+    }
+  }
+
+  @Test
+  public void testOtherThreadsAreSeededFromTheSameSeed() throws InterruptedException {
+    assertEquals(drawInNewThread(5), drawInNewThread(5));
+  }
+
+  /**
+   * Seeds a SimulationRandom in this thread and returns the first number it gives to another one.
+   */
+  private static long drawInNewThread(long seed) throws InterruptedException {
+    SimulationRandom random = new SimulationRandom(seed);
+    long[] result = new long[1];
+    Thread thread = new Thread(() -> result[0] = random.nextLong());
+    thread.start();
+    thread.join();
+    return result[0];
+  }
+}
@@ -0,0 +1,64 @@
+package biogenesis.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.awt.geom.Point2D;
+import java.util.Random;
+
+import org.junit.Test;
+
+import biogenesis.ExLine2DDouble;
+import biogenesis.Segments;
+
+public class SegmentsTest {
+  @Test
+  public void testIntersectionOfCrossingSegments() {
+    assertSameAsExLine2DDouble(0, 0, 10, 10, 0, 10, 10, 0);
+  }
+
+  @Test
+  public void testIntersectionOfParallelSegments() {
+    assertSameAsExLine2DDouble(0, 0, 10, 0, 0, 5, 10, 5);
+    assertSameAsExLine2DDouble(0, 0, 10, 10, 2, 2, 8, 8);
+  }
+
+  @Test
+  public void testIntersectionOfTouchingSegments() {
+    assertSameAsExLine2DDouble(0, 0, 10, 0, 10, 0, 10, 10);
+    assertSameAsExLine2DDouble(-3, 7, 4, -2, 4, -2, 4, 5);
+  }
+
+  @Test
+  public void testRandomSegments() {
+    Random random = new Random(42);
+    for (int i = 0; i < 100000; i++) {
+      // Organism segments have small integer coordinates relative to the center,
+      // and the center is an integer too
+      assertSameAsExLine2DDouble(
+          random.nextInt(61) - 30, random.nextInt(61) - 30, random.nextInt(61) - 30, random.nextInt(61) - 30,
+          random.nextInt(61) - 30, random.nextInt(61) - 30, random.nextInt(61) - 30, random.nextInt(61) - 30);
+    }
+  }
+
+  private void assertSameAsExLine2DDouble(double ax1, double ay1, double ax2, double ay2,
+                                          double bx1, double by1, double bx2, double by2) {
+    ExLine2DDouble line = new ExLine2DDouble();
+    ExLine2DDouble bline = new ExLine2DDouble();
+    line.setLine(ax1, ay1, ax2, ay2);
+    bline.setLine(bx1, by1, bx2, by2);
+
+    assertEquals(line.intersectsLine(bline), Segments.intersect(ax1, ay1, ax2, ay2, bx1, by1, bx2, by2));
+
+    Point2D.Double intersec = line.getIntersection(bline);
+    double ix = Segments.intersectionX(ax1, ay1, ax2, ay2, bx1, by1, bx2, by2);
+    double iy = Segments.intersectionY(ax1, ay1, ax2, ay2, bx1, by1, bx2, by2);
+    // The results must be exactly the same, not just close
+    assertEquals(Double.doubleToLongBits(intersec.x), Double.doubleToLongBits(ix));
+    assertEquals(Double.doubleToLongBits(intersec.y), Double.doubleToLongBits(iy));
+
+    double dl = Math.min(intersec.distanceSq(line.getP1()), intersec.distanceSq(line.getP2()));
+    double dbl = Math.min(intersec.distanceSq(bline.getP1()), intersec.distanceSq(bline.getP2()));
+    assertEquals(Double.doubleToLongBits(dl), Double.doubleToLongBits(Segments.nearestVertexDistanceSq(ix, iy, ax1, ay1, ax2, ay2)));
+    assertEquals(Double.doubleToLongBits(dbl), Double.doubleToLongBits(Segments.nearestVertexDistanceSq(ix, iy, bx1, by1, bx2, by2)));
+  }
+}
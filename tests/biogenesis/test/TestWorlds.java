@@ -0,0 +1,109 @@
+package biogenesis.test;
+
+import java.awt.Dimension;
+import java.awt.Frame;
+import java.awt.Rectangle;
+
+import biogenesis.BioFile;
+import biogenesis.GeneticCode;
+import biogenesis.InfoToolbar;
+import biogenesis.MainWindowInterface;
+import biogenesis.Organism;
+import biogenesis.VisibleWorld;
+import biogenesis.VisibleWorldInterface;
+import biogenesis.World;
+
+/**
+ * Worlds and organisms for tests that need them, without any window.
+ */
+public class TestWorlds {
+  private TestWorlds() {
+  }
+
+  /**
+   * Returns an empty world that is not shown anywhere.
+   */
+  public static World newWorld() {
+    final World[] world = new World[1];
+    final MainWindowInterface mainWindow = new MainWindowInterface() {
+      @Override
+      public Frame getFrame() {
+        return null;
+      }
+
+      @Override
+      public World getWorld() {
+        return world[0];
+      }
+
+      @Override
+      public VisibleWorld getVisibleWorld() {
+        return null;
+      }
+
+      @Override
+      public InfoToolbar getInfoPanel() {
+        return null;
+      }
+
+      @Override
+      public BioFile getBioFile() {
+        return null;
+      }
+    };
+    world[0] = new World(new VisibleWorldInterface() {
+      private Organism selected;
+
+      @Override
+      public MainWindowInterface getMainWindow() {
+        return mainWindow;
+      }
+
+      @Override
+      public void repaint() {
+      }
+
+      @Override
+      public void repaint(Rectangle r) {
+      }
+
+      @Override
+      public void setPreferredSize(Dimension d) {
+      }
+
+      @Override
+      public Organism getSelectedOrganism() {
+        return selected;
+      }
+
+      @Override
+      public void setSelectedOrganism(Organism o) {
+        selected = o;
+      }
+
+      @Override
+      public void showDeadToolbar() {
+      }
+    });
+    return world[0];
+  }
+
+  /**
+   * An organism with a random genetic code and its segments created, but not placed in the
+   * world. Its fields can be read by tests.
+   */
+  public static class TestOrganism extends Organism {
+    private static final long serialVersionUID = 1L;
+
+    public TestOrganism(World world, int id) {
+      super(world, new GeneticCode());
+      _ID = id;
+      create();
+    }
+
+    public Object[] segmentArrays() {
+      return new Object[] {_segColor, _segType, _startPointX, _startPointY, _endPointX, _endPointY, _m, _mphoto,
+          x1, y1, x2, y2};
+    }
+  }
+}
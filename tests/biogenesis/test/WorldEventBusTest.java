@@ -0,0 +1,110 @@
+package biogenesis.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import biogenesis.Organism;
+import biogenesis.OrganismStore;
+import biogenesis.World;
+import biogenesis.WorldEventBus;
+import biogenesis.WorldEventListener;
+import biogenesis.test.TestWorlds.TestOrganism;
+
+public class WorldEventBusTest {
+  @Test
+  public void testBatchIsDeliveredInTheOrderOfTheStore() throws InterruptedException {
+    World world = TestWorlds.newWorld();
+    final OrganismStore store = new OrganismStore();
+    for (int i = 0; i < 6; i++) {
+      store.add(new TestOrganism(world, 100 + i));
+    }
+    final WorldEventBus bus = new WorldEventBus();
+    final List<String> delivered = record(bus);
+
+    bus.startBatch();
+    // Every thread progresses some organisms, out of the order of the store
+    Thread first = new Thread(() -> {
+      progress(bus, store.get(4), delivered);
+      progress(bus, store.get(1), delivered);
+    });
+    Thread second = new Thread(() -> {
+      progress(bus, store.get(5), delivered);
+      progress(bus, store.get(0), delivered);
+      bus.populationIncreased();
+    });
+    Thread third = new Thread(() -> {
+      progress(bus, store.get(3), delivered);
+      progress(bus, store.get(2), delivered);
+    });
+    first.start();
+    second.start();
+    third.start();
+    first.join();
+    second.join();
+    third.join();
+    assertEquals(0, delivered.size());
+    bus.deliverBatch();
+
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      expected.addAll(Arrays.asList("died " + (100 + i), "action " + (100 + i), "removed " + (100 + i)));
+    }
+    // Events posted outside of an organism come last
+    expected.add("population increased");
+    assertEquals(expected, delivered);
+  }
+
+  @Test
+  public void testEventsOutsideOfABatchAreDeliveredRightAway() {
+    World world = TestWorlds.newWorld();
+    OrganismStore store = new OrganismStore();
+    store.add(new TestOrganism(world, 7));
+    WorldEventBus bus = new WorldEventBus();
+    List<String> delivered = record(bus);
+
+    progress(bus, store.get(0), delivered);
+    assertEquals(Arrays.asList("died 7", "action 7", "removed 7"), delivered);
+
+    bus.startBatch();
+    bus.deliverBatch();
+    bus.populationIncreased();
+    assertEquals("population increased", delivered.get(3));
+  }
+
+  /**
+   * Posts the events of an organism that dies and decomposes, with an action between them.
+   */
+  private static void progress(WorldEventBus bus, final Organism organism, final List<String> delivered) {
+    bus.enterOrganism(organism);
+    bus.organismDied(organism, null);
+    bus.postAction(() -> delivered.add("action " + organism.getID()));
+    bus.organismRemoved(organism);
+    bus.exitOrganism();
+  }
+
+  private static List<String> record(WorldEventBus bus) {
+    final List<String> delivered = new ArrayList<>();
+    bus.addListener(new WorldEventListener() {
+      @Override
+      public void organismDied(Organism dyingOrganism, Organism killingOrganism) {
+        delivered.add("died " + dyingOrganism.getID());
+      }
+
+      @Override
+      public void organismRemoved(Organism organism) {
+        delivered.add("removed " + organism.getID());
+      }
+
+      @Override
+      public void populationIncreased() {
+        delivered.add("population increased");
+      }
+    });
+    return delivered;
+  }
+}